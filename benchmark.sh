@@ -0,0 +1,16 @@
+#!/bin/bash
+
+echo "=== Running JMH Benchmarks ==="
+
+# Build the spell checker and the self-contained benchmarks jar
+mvn -B -q package || exit 1
+
+# One CSV per run, named after the commit, so runs of different versions can be compared:
+#   java -cp benchmarks/target/benchmarks.jar com.chatbot.spellchecker.CompareResults old.csv new.csv
+mkdir -p benchmarks/results
+label=${LABEL:-$(git describe --always --dirty 2>/dev/null || date +%Y%m%d-%H%M%S)}
+results=benchmarks/results/$label.csv
+
+# Extra arguments go to JMH, e.g. './benchmark.sh SuggestionBench -p dictionary=builtin'
+java -jar benchmarks/target/benchmarks.jar -prof gc -rf csv -rff "$results" "$@" || exit 1
+echo "Results saved to $results"
@@ -0,0 +1,104 @@
+package com.chatbot.spellchecker;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Throughput and memory of batch correction over a synthetic multi-million-line query log.
+ *
+ * The log is built from test_parts_queries.txt: its lines are repeated in random order, and
+ * about one token in ten gets a random typo so that the suggestion cache does not answer
+ * everything. The log is corrected once per thread count while a sampler records the peak heap
+ * in use, which should stay flat however long the input is.
+ *
+ * Usage: java BatchBenchmark [lines] [dictionary file]
+ */
+public class BatchBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int lines = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        String dictionaryPath = args.length > 1 ? args[1] : "frequency_dictionary_en_82_765.txt";
+
+        Path corpus = writeCorpus(lines, new Random(6));
+        System.out.printf("Corpus: %,d lines, %.1f MB%n", lines, Files.size(corpus) / 1e6);
+
+        SpellChecker checker = new SpellChecker(Collections.emptyMap());
+        checker.loadDictionary(dictionaryPath);
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        Set<Integer> threadCounts = new TreeSet<>(Arrays.asList(1, cores, cores * 2));
+        System.out.printf("%-8s %12s %10s %14s%n", "threads", "lines/s", "seconds", "peak heap MB");
+        for (int threads : threadCounts) {
+            HeapSampler sampler = new HeapSampler();
+            sampler.start();
+            long start = System.nanoTime();
+            try (Reader input = Files.newBufferedReader(corpus, StandardCharsets.UTF_8);
+                 Writer output = Writer.nullWriter()) {
+                new BatchCorrector(checker, threads).run(input, output);
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            sampler.interrupt();
+            sampler.join();
+            System.out.printf("%-8d %12.0f %10.1f %14.1f%n", threads, lines / seconds, seconds, sampler.peak / 1e6);
+        }
+        Files.delete(corpus);
+    }
+
+    private static Path writeCorpus(int lines, Random random) throws IOException {
+        List<String> queries = new ArrayList<>();
+        for (String line : Files.readAllLines(Paths.get("test_parts_queries.txt"))) {
+            if (!line.trim().isEmpty()) {
+                queries.add(line);
+            }
+        }
+
+        Path corpus = Files.createTempFile("batch_corpus", ".txt");
+        try (BufferedWriter writer = Files.newBufferedWriter(corpus, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < lines; i++) {
+                String[] tokens = queries.get(random.nextInt(queries.size())).split(" ");
+                for (int t = 0; t < tokens.length; t++) {
+                    if (t > 0) {
+                        writer.write(' ');
+                    }
+                    writer.write(random.nextInt(10) == 0 ? typo(tokens[t], random) : tokens[t]);
+                }
+                writer.newLine();
+            }
+        }
+        return corpus;
+    }
+
+    private static String typo(String token, Random random) {
+        if (token.length() < 3) {
+            return token;
+        }
+        StringBuilder result = new StringBuilder(token);
+        int position = random.nextInt(token.length());
+        result.setCharAt(position, (char) ('a' + random.nextInt(26)));
+        return result.toString();
+    }
+
+    // Polls the used heap; the peak approximates the working set of the pipeline
+    private static final class HeapSampler extends Thread {
+        volatile long peak;
+
+        HeapSampler() {
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            Runtime runtime = Runtime.getRuntime();
+            while (!isInterrupted()) {
+                peak = Math.max(peak, runtime.totalMemory() - runtime.freeMemory());
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.chatbot.spellchecker;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Inputs shared by the JMH benchmarks: the query corpus and the dictionary to load.
+ *
+ * JMH forks run in the directory the benchmarks were started from, which is either the project
+ * root or the benchmarks module, so files are looked up in the working directory and its parents.
+ */
+final class BenchmarkData {
+    static final String CORPUS = "test_parts_queries.txt";
+
+    // A path that never exists, so loadDictionary falls back to the built-in dictionary
+    static final String BUILTIN = "builtin-dictionary.txt";
+
+    private BenchmarkData() {
+    }
+
+    static Path find(String name) {
+        for (Path dir = Paths.get("").toAbsolutePath(); dir != null; dir = dir.getParent()) {
+            if (Files.exists(dir.resolve(name))) {
+                return dir.resolve(name);
+            }
+        }
+        return null;
+    }
+
+    // Non-empty lines of test_parts_queries.txt
+    static List<String> corpus() {
+        Path path = find(CORPUS);
+        if (path == null) {
+            throw new IllegalStateException(CORPUS + " not found; run the benchmarks from the project directory");
+        }
+        List<String> lines = new ArrayList<>();
+        try {
+            for (String line : Files.readAllLines(path)) {
+                if (!line.trim().isEmpty()) {
+                    lines.add(line);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return lines;
+    }
+
+    // "builtin" or "frequency"; the frequency file is replaced by a synthetic one of the same size if absent
+    static String dictionary(String source) throws IOException {
+        if (source.equals("builtin")) {
+            return BUILTIN;
+        }
+        Path path = find(SpellCheckerBenchmark.FREQUENCY_DICTIONARY);
+        return path != null ? path.toString() : SpellCheckerBenchmark.writeSyntheticDictionary().toString();
+    }
+
+    static SpellChecker checker(String source) throws IOException {
+        SpellChecker checker = new SpellChecker(Collections.emptyMap());
+        checker.loadDictionary(dictionary(source));
+        return checker;
+    }
+}
@@ -0,0 +1,127 @@
+package com.chatbot.spellchecker;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Hit rate and lookup time of the suggestion cache on chat-like traffic.
+ *
+ * The workload repeats the tokens of test_parts_queries.txt (padded with random typos up to
+ * HOT_TYPOS) with a Zipf distribution, and mixes in one-off garbage tokens that never come back. The same key stream is replayed through the W-TinyLFU cache and through a plain LRU of
+ * the same size to show what the admission policy buys, then through findSuggestions with and
+ * without the cache.
+ *
+ * Usage: java CacheBenchmark [dictionary file]
+ */
+public class CacheBenchmark {
+    private static final int CAPACITY = 1600;
+    private static final int HOT_TYPOS = 3000;
+    private static final int REQUESTS = 200000;
+    private static final double GARBAGE_SHARE = 0.5;
+
+    public static void main(String[] args) throws IOException {
+        String dictionaryPath = args.length > 0 ? args[0] : "frequency_dictionary_en_82_765.txt";
+        if (!new File(dictionaryPath).exists()) {
+            dictionaryPath = SpellCheckerBenchmark.writeSyntheticDictionary().toString();
+            System.out.println("Using synthetic dictionary");
+        }
+        List<String> workload = workload(new Random(5));
+
+        System.out.println("Hit rate with " + CAPACITY + " entries, " + (int) (GARBAGE_SHARE * 100) + "% one-off tokens:");
+        SuggestionCache<Boolean> tinyLfu = new SuggestionCache<>(CAPACITY);
+        for (String key : workload) {
+            if (tinyLfu.get(key) == null) {
+                tinyLfu.put(key, Boolean.TRUE, tinyLfu.epoch());
+            }
+        }
+        System.out.printf("  W-TinyLFU  %5.1f%%   (%s)%n", 100.0 * tinyLfu.hits() / workload.size(), tinyLfu);
+
+        Map<String, Boolean> lru = new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > CAPACITY;
+            }
+        };
+        long lruHits = 0;
+        for (String key : workload) {
+            if (lru.get(key) != null) {
+                lruHits++;
+            } else {
+                lru.put(key, Boolean.TRUE);
+            }
+        }
+        System.out.printf("  LRU        %5.1f%%%n", 100.0 * lruHits / workload.size());
+
+        SpellChecker checker = new SpellChecker(Collections.emptyMap());
+        checker.loadDictionary(dictionaryPath);
+        List<String> sample = workload.subList(0, 20000);
+        for (String word : workload.subList(REQUESTS - 5000, REQUESTS)) {
+            checker.computeSuggestions(word); // JIT warm-up
+        }
+
+        long start = System.nanoTime();
+        for (String word : sample) {
+            checker.computeSuggestions(word);
+        }
+        double uncached = (System.nanoTime() - start) / 1e3 / sample.size();
+
+        start = System.nanoTime();
+        for (String word : sample) {
+            checker.findSuggestions(word);
+        }
+        double cached = (System.nanoTime() - start) / 1e3 / sample.size();
+
+        System.out.println();
+        System.out.printf("findSuggestions without cache: %8.1f us/lookup%n", uncached);
+        System.out.printf("findSuggestions with cache:    %8.1f us/lookup   (%s)%n", cached, checker.suggestionCache());
+    }
+
+    private static List<String> workload(Random random) throws IOException {
+        // Misspellings seen in the query corpus come first, i.e. they are the most frequent
+        Set<String> typos = new LinkedHashSet<>();
+        if (new File("test_parts_queries.txt").exists()) {
+            for (String line : Files.readAllLines(Paths.get("test_parts_queries.txt"))) {
+                for (String token : line.toLowerCase().split("[^a-z']+")) {
+                    if (token.length() > 2) {
+                        typos.add(token);
+                    }
+                }
+            }
+        }
+        String letters = "abcdefghijklmnopqrstuvwxyz";
+        while (typos.size() < HOT_TYPOS) {
+            typos.add(randomWord(random, letters, 4 + random.nextInt(6)));
+        }
+        String[] hot = typos.toArray(new String[0]);
+
+        // Zipf(1) over the hot typos via the cumulative distribution
+        double[] cumulative = new double[hot.length];
+        double total = 0;
+        for (int i = 0; i < hot.length; i++) {
+            total += 1.0 / (i + 1);
+            cumulative[i] = total;
+        }
+
+        List<String> workload = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            if (random.nextDouble() < GARBAGE_SHARE) {
+                workload.add(randomWord(random, letters, 6 + random.nextInt(6)));
+            } else {
+                int rank = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+                workload.add(hot[Math.min(hot.length - 1, rank < 0 ? -rank - 1 : rank)]);
+            }
+        }
+        return workload;
+    }
+
+    private static String randomWord(Random random, String letters, int length) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            word.append(letters.charAt(random.nextInt(letters.length())));
+        }
+        return word.toString();
+    }
+}
@@ -0,0 +1,118 @@
+package com.chatbot.spellchecker;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Compares two JMH result files written by benchmark.sh (-rf csv) and flags regressions.
+ *
+ * Rows are matched on benchmark, mode and parameters. The primary score and the allocation per
+ * operation (gc.alloc.rate.norm) are compared; the other GC profiler rows depend on the run
+ * length and are skipped. A row regresses when it is worse than the baseline by more than the
+ * threshold, and the exit status is 1 if any row did.
+ *
+ * Usage: java CompareResults <baseline.csv> <current.csv> [threshold %, default 10]
+ */
+public class CompareResults {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: java CompareResults <baseline.csv> <current.csv> [threshold %]");
+            System.exit(2);
+        }
+        Map<String, Row> baseline = read(args[0]);
+        Map<String, Row> current = read(args[1]);
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+
+        int regressions = 0;
+        System.out.printf("%-70s %14s %14s %9s  %s%n", "benchmark", "baseline", "current", "change", "unit");
+        for (Map.Entry<String, Row> entry : current.entrySet()) {
+            Row now = entry.getValue();
+            Row before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-70s %14s %14.3f %9s  %s%n", entry.getKey(), "-", now.score, "new", now.unit);
+                continue;
+            }
+            double change = before.score == 0 ? 0 : (now.score - before.score) / before.score * 100;
+            // Throughput gets better as it grows, times and bytes per operation as they shrink
+            double worse = now.unit.startsWith("ops/") ? -change : change;
+            boolean regressed = worse > threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-70s %14.3f %14.3f %+8.1f%%  %s%s%n", entry.getKey(), before.score, now.score,
+                    change, now.unit, regressed ? "  REGRESSION" : "");
+        }
+        System.out.println(regressions == 0
+                ? "No regressions over " + threshold + "%"
+                : regressions + " regression(s) over " + threshold + "%");
+        System.exit(regressions == 0 ? 0 : 1);
+    }
+
+    private static final class Row {
+        final double score;
+        final String unit;
+
+        Row(double score, String unit) {
+            this.score = score;
+            this.unit = unit;
+        }
+    }
+
+    // Key "Class.method[:metric] mode param=value,..." -> score
+    private static Map<String, Row> read(String path) throws IOException {
+        List<String> lines = Files.readAllLines(Paths.get(path));
+        List<String> header = parseLine(lines.get(0));
+        int benchmark = header.indexOf("Benchmark");
+        int mode = header.indexOf("Mode");
+        int score = header.indexOf("Score");
+        int unit = header.indexOf("Unit");
+
+        Map<String, Row> rows = new LinkedHashMap<>();
+        for (String line : lines.subList(1, lines.size())) {
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            List<String> fields = parseLine(line);
+            String name = fields.get(benchmark);
+            int metric = name.indexOf(':');
+            if (metric >= 0 && !name.endsWith("gc.alloc.rate.norm")) {
+                continue;
+            }
+            // Drop the package, which is the same for all benchmarks
+            int method = name.lastIndexOf('.', metric >= 0 ? metric : name.length());
+            name = name.substring(name.lastIndexOf('.', method - 1) + 1);
+
+            StringBuilder key = new StringBuilder(name).append(' ').append(fields.get(mode));
+            for (int i = 0; i < header.size(); i++) {
+                if (header.get(i).startsWith("Param: ") && i < fields.size() && !fields.get(i).isEmpty()) {
+                    key.append(' ').append(header.get(i).substring(7)).append('=').append(fields.get(i));
+                }
+            }
+            rows.put(key.toString(), new Row(Double.parseDouble(fields.get(score)), fields.get(unit)));
+        }
+        return rows;
+    }
+
+    // Comma-separated fields, optionally in double quotes
+    private static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ',' && !quoted) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,51 @@
+package com.chatbot.spellchecker;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH: text correction of the whole test_parts_queries.txt corpus per operation.
+ *
+ * Measures correct(), which is correctText without the console output. The warm variant keeps
+ * the suggestion cache as it is in a running chatbot; the cold variant clears it first, so every
+ * misspelling goes through the index.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CorrectTextBench {
+
+    @Param({"builtin", "frequency"})
+    public String dictionary;
+
+    private SpellChecker checker;
+    private List<String> corpus;
+
+    @Setup
+    public void setUp() throws IOException {
+        checker = BenchmarkData.checker(dictionary);
+        corpus = BenchmarkData.corpus();
+    }
+
+    @Benchmark
+    public void corpusWarmCache(Blackhole blackhole) {
+        for (String line : corpus) {
+            blackhole.consume(checker.correct(line));
+        }
+    }
+
+    @Benchmark
+    public void corpusColdCache(Blackhole blackhole) {
+        checker.suggestionCache().invalidate();
+        for (String line : corpus) {
+            blackhole.consume(checker.correct(line));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.chatbot.spellchecker;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH: one edit distance computation, full matrix vs. the bounded kernels.
+ *
+ * The pairs are every misspelling in SpellCheckerBenchmark.QUERIES against every word of its
+ * vocabulary, so most pairs are far apart as they are during a lookup, and a few are near misses.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EditDistanceBench {
+    private static final int MAX_EDIT_DISTANCE = 3;
+
+    private String[] left;
+    private String[] right;
+    private SpellChecker checker;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        String[] queries = SpellCheckerBenchmark.QUERIES;
+        String[] vocabulary = SpellCheckerBenchmark.VOCABULARY;
+        left = new String[queries.length * vocabulary.length];
+        right = new String[left.length];
+        for (int q = 0; q < queries.length; q++) {
+            for (int v = 0; v < vocabulary.length; v++) {
+                left[q * vocabulary.length + v] = queries[q];
+                right[q * vocabulary.length + v] = vocabulary[v];
+            }
+        }
+        checker = new SpellChecker(Collections.emptyMap());
+    }
+
+    // Cycles through the pairs so that each invocation sees a different one
+    private int pair() {
+        int pair = next;
+        next = pair + 1 == left.length ? 0 : pair + 1;
+        return pair;
+    }
+
+    @Benchmark
+    public int fullMatrix() {
+        int pair = pair();
+        return checker.editDistance(left[pair], right[pair]);
+    }
+
+    @Benchmark
+    public int boundedLevenshtein() {
+        int pair = pair();
+        return EditDistance.levenshtein(left[pair], right[pair], MAX_EDIT_DISTANCE);
+    }
+
+    @Benchmark
+    public int boundedOsa() {
+        int pair = pair();
+        return EditDistance.optimalStringAlignment(left[pair], right[pair], MAX_EDIT_DISTANCE);
+    }
+}
@@ -0,0 +1,151 @@
+package com.chatbot.spellchecker;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+/**
+ * Compares the bounded EditDistance kernel with the full-matrix editDistance it replaced.
+ *
+ * Before timing, the kernel is checked against a plain dynamic program on random word pairs,
+ * for both Levenshtein and optimal string alignment. The timing loop follows the JMH pattern:
+ * warm-up iterations, then measured iterations with results consumed so the JIT cannot drop the
+ * work, and the bytes allocated by the measuring thread are reported next to the time.
+ *
+ * Usage: java EditDistanceBenchmark
+ */
+public class EditDistanceBenchmark {
+    private static final int MAX_EDIT_DISTANCE = 3;
+    private static final int PAIRS = 20000;
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 10;
+
+    public static void main(String[] args) {
+        Random random = new Random(3);
+        String[][] pairs = new String[PAIRS][];
+        for (int i = 0; i < PAIRS; i++) {
+            String word = randomWord(random, 2 + random.nextInt(12));
+            // Half the pairs are near misses, the rest unrelated words like most dictionary entries
+            String other = i % 2 == 0 ? mutate(random, word) : randomWord(random, 2 + random.nextInt(12));
+            pairs[i] = new String[] {word, other};
+        }
+
+        verify(random);
+
+        SpellChecker checker = new SpellChecker(Collections.emptyMap());
+        report("full matrix (current)", pairs, p -> checker.editDistance(p[0], p[1]));
+        report("bounded levenshtein", pairs, p -> EditDistance.levenshtein(p[0], p[1], MAX_EDIT_DISTANCE));
+        report("bounded osa", pairs, p -> EditDistance.optimalStringAlignment(p[0], p[1], MAX_EDIT_DISTANCE));
+    }
+
+    private interface Kernel {
+        int apply(String[] pair);
+    }
+
+    private static void report(String name, String[][] pairs, Kernel kernel) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long sink = 0;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink += run(pairs, kernel);
+        }
+
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            sink += run(pairs, kernel);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        double calls = (double) MEASURED_ITERATIONS * pairs.length;
+        System.out.printf("%-24s %8.1f ns/op %10.1f B/op   (checksum %d)%n",
+                name, elapsed / calls, allocated / calls, sink);
+    }
+
+    private static long run(String[][] pairs, Kernel kernel) {
+        long total = 0;
+        for (String[] pair : pairs) {
+            total += kernel.apply(pair);
+        }
+        return total;
+    }
+
+    // Both kernels must agree with a straightforward dynamic program, including words over 64 chars
+    private static void verify(Random random) {
+        int checked = 0;
+        for (int i = 0; i < 50000; i++) {
+            int length = i % 10 == 0 ? 60 + random.nextInt(20) : 1 + random.nextInt(12);
+            String a = randomWord(random, length);
+            String b = random.nextBoolean() ? mutate(random, a) : randomWord(random, 1 + random.nextInt(length + 3));
+            if (random.nextInt(20) == 0) {
+                b = b + "\u00e9\u4e2d";
+            }
+            for (boolean transpositions : new boolean[] {false, true}) {
+                for (int max = 0; max <= 4; max++) {
+                    int expected = Math.min(reference(a, b, transpositions), max + 1);
+                    int actual = EditDistance.distance(a, b, max, transpositions);
+                    if (expected != actual) {
+                        throw new IllegalStateException("Mismatch for '" + a + "' / '" + b + "' max=" + max
+                                + " transpositions=" + transpositions + ": " + actual + " != " + expected);
+                    }
+                    checked++;
+                }
+            }
+        }
+        System.out.println("Verified " + checked + " distances against the reference dynamic program");
+        System.out.println("teh -> the: levenshtein " + EditDistance.levenshtein("teh", "the", 3)
+                + ", osa " + EditDistance.optimalStringAlignment("teh", "the", 3));
+    }
+
+    private static int reference(String a, String b, boolean transpositions) {
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            d[i][0] = i;
+        }
+        for (int j = 0; j <= b.length(); j++) {
+            d[0][j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+                if (transpositions && i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + 1);
+                }
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+
+    private static String randomWord(Random random, int length) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(8)));
+        }
+        return word.toString();
+    }
+
+    // One to three random edits, including adjacent swaps
+    private static String mutate(Random random, String word) {
+        StringBuilder result = new StringBuilder(word);
+        int edits = 1 + random.nextInt(3);
+        for (int e = 0; e < edits && result.length() > 1; e++) {
+            int position = random.nextInt(result.length() - 1);
+            switch (random.nextInt(4)) {
+                case 0:
+                    result.deleteCharAt(position);
+                    break;
+                case 1:
+                    result.insert(position, (char) ('a' + random.nextInt(8)));
+                    break;
+                case 2:
+                    result.setCharAt(position, (char) ('a' + random.nextInt(8)));
+                    break;
+                default:
+                    char c = result.charAt(position);
+                    result.setCharAt(position, result.charAt(position + 1));
+                    result.setCharAt(position + 1, c);
+            }
+        }
+        return result.toString();
+    }
+}
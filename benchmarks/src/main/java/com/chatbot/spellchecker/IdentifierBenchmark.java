@@ -0,0 +1,147 @@
+package com.chatbot.spellchecker;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Memory and lookup time of the part/contract recognizer on a synthetic part master with
+ * millions of codes, compared with keeping the same codes in a HashSet<String>.
+ *
+ * The codes follow a few formats like a real part master ("AE125873", "PN-40291K",
+ * "CT2024-001234 contract"), so they share prefixes and suffixes the way real codes do.
+ *
+ * Usage: java IdentifierBenchmark [number of codes]
+ */
+public class IdentifierBenchmark {
+    private static final int QUERIES = 200_000;
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        Random random = new Random(42);
+        List<String> codes = syntheticCodes(count, random);
+        Path file = Files.createTempFile("part_master", ".txt");
+        file.toFile().deleteOnExit();
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (String code : codes) {
+                writer.write(code.startsWith("CT") ? code + " contract\n" : code + "\n");
+            }
+        }
+
+        long before = usedHeap();
+        long start = System.nanoTime();
+        IdentifierRecognizer identifiers = IdentifierRecognizer.load(file);
+        long loaded = System.nanoTime();
+        long recognizerHeap = usedHeap() - before;
+        System.out.printf("%,d codes loaded in %.0f ms: %,d states, %.1f bytes/code (%.1f MB, %.1f MB measured)%n",
+                identifiers.size(), (loaded - start) / 1e6, identifiers.stateCount(),
+                identifiers.sizeInBytes() / (double) identifiers.size(), identifiers.sizeInBytes() / 1e6,
+                recognizerHeap / 1e6);
+
+        before = usedHeap();
+        start = System.nanoTime();
+        // Copies, so that the strings are counted as they would be in a set loaded from the file
+        Set<String> hashSet = new HashSet<>();
+        for (String code : codes) {
+            hashSet.add(new String(code.toCharArray()));
+        }
+        long built = System.nanoTime();
+        long hashSetHeap = usedHeap() - before;
+        System.out.printf("HashSet<String> of the same codes built in %.0f ms: %.1f bytes/code (%.1f MB measured)%n",
+                (built - start) / 1e6, hashSetHeap / (double) hashSet.size(), hashSetHeap / 1e6);
+
+        // Hits, misses in the same formats, and near misses one typo away from a known code
+        String[] hits = new String[QUERIES];
+        String[] misses = new String[QUERIES];
+        String[] nearMisses = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            hits[i] = codes.get(random.nextInt(codes.size()));
+            do {
+                misses[i] = syntheticCode(random);
+            } while (hashSet.contains(misses[i]));
+            nearMisses[i] = typo(hits[i], random);
+        }
+
+        System.out.printf("%-22s %10s %10s%n", "lookup", "ns/op", "found");
+        for (int round = 0; round < 3; round++) {
+            boolean report = round == 2;
+            measure("kindOf, known", hits, identifiers, false, report);
+            measure("kindOf, unknown", misses, identifiers, false, report);
+            measure("nearest, near miss", nearMisses, identifiers, true, report);
+        }
+        int hashSetFound = 0;
+        start = System.nanoTime();
+        for (String hit : hits) {
+            hashSetFound += hashSet.contains(hit) ? 1 : 0;
+        }
+        System.out.printf("%-22s %10.0f %10d%n", "HashSet, known", (System.nanoTime() - start) / (double) QUERIES, hashSetFound);
+    }
+
+    private static void measure(String name, String[] queries, IdentifierRecognizer identifiers,
+                                boolean nearest, boolean report) {
+        int found = 0;
+        long start = System.nanoTime();
+        for (String query : queries) {
+            if (nearest) {
+                found += identifiers.nearest(query).isEmpty() ? 0 : 1;
+            } else {
+                found += identifiers.kindOf(query) != null ? 1 : 0;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        if (report) {
+            System.out.printf("%-22s %10.0f %10d%n", name, elapsed / (double) queries.length, found);
+        }
+    }
+
+    static List<String> syntheticCodes(int count, Random random) {
+        Set<String> codes = new LinkedHashSet<>();
+        while (codes.size() < count) {
+            codes.add(syntheticCode(random));
+        }
+        return new ArrayList<>(codes);
+    }
+
+    private static String syntheticCode(Random random) {
+        switch (random.nextInt(3)) {
+            case 0:
+                return String.format("AE%06d", random.nextInt(1_000_000));
+            case 1:
+                return String.format("PN-%05d%c", random.nextInt(100_000), (char) ('A' + random.nextInt(26)));
+            default:
+                return String.format("CT%d-%06d", 2015 + random.nextInt(10), random.nextInt(1_000_000));
+        }
+    }
+
+    // One random substitution, deletion, insertion or swap
+    private static String typo(String code, Random random) {
+        StringBuilder typo = new StringBuilder(code);
+        int i = random.nextInt(code.length() - 1);
+        switch (random.nextInt(4)) {
+            case 0:
+                typo.setCharAt(i, (char) ('0' + random.nextInt(10)));
+                break;
+            case 1:
+                typo.deleteCharAt(i);
+                break;
+            case 2:
+                typo.insert(i, (char) ('0' + random.nextInt(10)));
+                break;
+            default:
+                typo.setCharAt(i, code.charAt(i + 1));
+                typo.setCharAt(i + 1, code.charAt(i));
+                break;
+        }
+        return typo.toString();
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,136 @@
+package com.chatbot.spellchecker;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Dictionary file parsing, sequential against parallel, and how soon a checker loading in the
+ * background serves exact lookups and then suggestions.
+ *
+ * A synthetic dictionary is written the way catalogs get appended to an English word list: words
+ * of mixed case, some repeated with more counts, a few non-ASCII ones and a few malformed lines.
+ * The parallel parser must return the same map, in the same iteration order, as the
+ * Files.lines and split(" ") parser it replaced (kept here as the reference).
+ *
+ * Usage: java IngestionBenchmark [million lines] [million distinct words]
+ */
+public class IngestionBenchmark {
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) throws Exception {
+        long lines = (long) ((args.length > 0 ? Double.parseDouble(args[0]) : 5) * 1_000_000);
+        int distinct = (int) ((args.length > 1 ? Double.parseDouble(args[1]) : 1) * 1_000_000);
+        Path file = Files.createTempFile("ingestion", ".txt");
+        try {
+            write(file, lines, distinct, new Random(42));
+            System.out.printf("%,d lines, %d MB, %d fork-join threads%n", lines, Files.size(file) >> 20,
+                    ForkJoinPool.commonPool().getParallelism());
+
+            Map<String, Integer> expected = sequential(file);
+            Map<String, Integer> actual = SpellChecker.readDictionary(file.toString(), word -> true);
+            boolean same = expected.equals(actual) && new ArrayList<>(expected.keySet()).equals(new ArrayList<>(actual.keySet()));
+            System.out.printf("%,d distinct words; parallel parse %s the sequential one%n", actual.size(),
+                    same ? "matches" : "DIFFERS FROM");
+            expected = null;
+            actual = null;
+
+            double sequentialMillis = Double.MAX_VALUE;
+            double parallelMillis = Double.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                sequential(file);
+                sequentialMillis = Math.min(sequentialMillis, (System.nanoTime() - start) / 1e6);
+                start = System.nanoTime();
+                SpellChecker.readDictionary(file.toString(), word -> true);
+                parallelMillis = Math.min(parallelMillis, (System.nanoTime() - start) / 1e6);
+            }
+            System.out.printf("parse: sequential %.0f ms, parallel %.0f ms (best of %d)%n",
+                    sequentialMillis, parallelMillis, ROUNDS);
+
+            SpellChecker checker = new SpellChecker(Collections.emptyMap());
+            long start = System.nanoTime();
+            checker.loadDictionary(file.toString());
+            System.out.printf("loadDictionary: ready after %.0f ms%n", (System.nanoTime() - start) / 1e6);
+
+            checker = new SpellChecker(Collections.emptyMap());
+            String known = knownWord(distinct);
+            start = System.nanoTime();
+            checker.loadDictionaryAsync(file.toString());
+            double returned = (System.nanoTime() - start) / 1e6;
+            while (checker.readiness() == SpellChecker.Readiness.LOADING) {
+                Thread.sleep(1);
+            }
+            double exact = (System.nanoTime() - start) / 1e6;
+            boolean found = checker.findSuggestions(known).size() == 1;
+            checker.ready().join();
+            double ready = (System.nanoTime() - start) / 1e6;
+            System.out.printf("loadDictionaryAsync: returned after %.1f ms, exact lookups after %.0f ms (%s), suggestions after %.0f ms%n",
+                    returned, exact, found ? "known word found" : "KNOWN WORD MISSING", ready);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // The parser loadDictionary used before
+    private static Map<String, Integer> sequential(Path file) throws IOException {
+        try (Stream<String> lines = Files.lines(file)) {
+            return lines
+                    .map(line -> line.split(" "))
+                    .filter(tokens -> tokens.length >= 2)
+                    .collect(Collectors.toMap(
+                            tokens -> tokens[0].toLowerCase(),
+                            tokens -> {
+                                try {
+                                    return Integer.parseInt(tokens[1]);
+                                } catch (NumberFormatException e) {
+                                    return 1;
+                                }
+                            },
+                            Integer::sum));
+        }
+    }
+
+    private static void write(Path file, long lines, int distinct, Random random) throws IOException {
+        String[] malformed = {"", " ", "word", "word ", "  word 3", "word  7", "word x", "word 99999999999", "word +5 extra",
+            "word\t3", "-word -12"};
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (long i = 0; i < lines; i++) {
+                if (i % 10_000 == 0) {
+                    out.write(malformed[(int) (i / 10_000 % malformed.length)]);
+                } else {
+                    String word = word(random.nextInt(distinct));
+                    if (random.nextInt(20) == 0) {
+                        word = word.toUpperCase();
+                    } else if (random.nextInt(1000) == 0) {
+                        word = word + "\u00e9";
+                    }
+                    out.write(word);
+                    out.write(' ');
+                    out.write(Integer.toString(1 + random.nextInt(1_000_000)));
+                }
+                out.write(i % 7 == 0 ? "\r\n" : "\n");
+            }
+        }
+    }
+
+    // Distinct words for distinct numbers, 4 letters and up
+    private static String word(int n) {
+        StringBuilder word = new StringBuilder();
+        do {
+            word.append((char) ('a' + n % 26));
+            n /= 26;
+        } while (n > 0 || word.length() < 4);
+        return word.toString();
+    }
+
+    private static String knownWord(int distinct) {
+        return word(distinct / 2);
+    }
+}
@@ -0,0 +1,315 @@
+package com.chatbot.spellchecker;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stress test of live dictionary changes: reader threads look up words and typos while writer
+ * threads add, remove and reweight words as fast as they can.
+ *
+ * The readers check every answer against what the writers have published so far:
+ *   - an added word is found, and a typo of it gets it as a suggestion
+ *   - a removed word is not found
+ *   - a reweighted word never shows an older weight than the last one published
+ *   - the words of the loaded dictionary are always found
+ * After the writers stop, the suggestions for a sample of typos must be the same as those of a
+ * checker built from scratch over the final word list, both before and after a compaction.
+ * Read latency is measured with the readers alone and with the writers running; while they run,
+ * the dictionary is also compacted every COMPACTION_MILLIS, as if the threshold was reached.
+ *
+ * Usage: java LiveUpdateBenchmark [seconds] [readers] [writers] [dictionary file]
+ */
+public class LiveUpdateBenchmark {
+    private static final String LETTERS = "abcdefghijklmnopqrstuvwxyz";
+    private static final long COMPACTION_MILLIS = 1000;
+
+    public static void main(String[] args) throws Exception {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int readers = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        int writers = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+        String dictionaryPath = args.length > 3 ? args[3] : "frequency_dictionary_en_82_765.txt";
+        if (!new File(dictionaryPath).exists()) {
+            dictionaryPath = SpellCheckerBenchmark.writeSyntheticDictionary().toString();
+            System.out.println("Using synthetic dictionary");
+        }
+
+        Map<String, Integer> base = SpellChecker.readDictionary(dictionaryPath, word -> true);
+        SpellChecker checker = new SpellChecker(Collections.emptyMap());
+        checker.loadDictionary(dictionaryPath);
+        String[] baseWords = base.keySet().toArray(new String[0]);
+        Set<String> taken = ConcurrentHashMap.newKeySet();
+        taken.addAll(base.keySet());
+
+        Writer[] writerStates = new Writer[writers];
+        for (int i = 0; i < writers; i++) {
+            writerStates[i] = new Writer(checker, taken, i);
+        }
+
+        System.out.printf("%d words, %d readers, %d writers, %d s per phase%n",
+                base.size(), readers, writers, seconds);
+        run(checker, baseWords, writerStates, readers, new Writer[0], 2);
+        Phase quiet = run(checker, baseWords, writerStates, readers, new Writer[0], seconds);
+        Phase busy = run(checker, baseWords, writerStates, readers, writerStates, seconds);
+
+        System.out.println();
+        System.out.println("Lookup latency (us):");
+        System.out.printf("  readers only   %,10.0f lookups/s  %s%n", quiet.lookups / (double) seconds, quiet.latency.summary(1000));
+        System.out.printf("  with writers   %,10.0f lookups/s  %s%n", busy.lookups / (double) seconds, busy.latency.summary(1000));
+        long changes = 0;
+        for (Writer writer : writerStates) {
+            changes += writer.changes;
+        }
+        System.out.printf("Changes: %,d (%,.0f/s), %d compactions, %d words now%n",
+                changes, changes / (double) seconds, checker.live().compactions(), checker.live().snapshot().words());
+
+        // What the dictionary should be now, checked with a checker built from scratch
+        Map<String, Integer> expected = new LinkedHashMap<>(base);
+        for (Writer writer : writerStates) {
+            writer.addExpected(expected);
+        }
+        SpellChecker fresh = new SpellChecker(expected);
+        List<String> typos = new ArrayList<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 2000; i++) {
+            Writer writer = writerStates[random.nextInt(writers)];
+            String word = i % 2 == 0 || writer.added.get() == 0
+                    ? baseWords[random.nextInt(baseWords.length)]
+                    : writer.addedWords.get(random.nextInt(writer.added.get()));
+            typos.add(typo(word, random));
+        }
+        for (Writer writer : writerStates) {
+            typos.addAll(writer.removedWords);
+        }
+        long mismatches = compare(checker, fresh, typos);
+        checker.live().compact();
+        long afterCompaction = compare(checker, fresh, typos);
+
+        long errors = busy.errors.sum() + quiet.errors.sum();
+        System.out.printf("Final state: %d of %d lookups differ from a rebuilt index, %d after compaction%n",
+                mismatches, typos.size(), afterCompaction);
+        System.out.printf("Reader check failures: %d (of %,d checks)%n", errors, busy.checks.sum() + quiet.checks.sum());
+        if (errors + mismatches + afterCompaction > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static final class Phase {
+        final Histogram latency = new Histogram();
+        final LongAdder errors = new LongAdder();
+        final LongAdder checks = new LongAdder();
+        long lookups;
+    }
+
+    private static Phase run(SpellChecker checker, String[] baseWords, Writer[] published, int readers,
+                             Writer[] writers, int seconds) throws InterruptedException {
+        Phase phase = new Phase();
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicLong lookups = new AtomicLong();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < readers; i++) {
+            threads.add(new Thread(() -> lookups.addAndGet(read(checker, baseWords, published, phase, stop))));
+        }
+        for (Writer writer : writers) {
+            threads.add(new Thread(() -> writer.write(stop)));
+        }
+        if (writers.length > 0) {
+            threads.add(new Thread(() -> {
+                while (!stop.get()) {
+                    try {
+                        Thread.sleep(COMPACTION_MILLIS);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    if (checker.live() != null) {
+                        checker.live().compact();
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        Thread.sleep(seconds * 1000L);
+        stop.set(true);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        phase.lookups = lookups.get();
+        return phase;
+    }
+
+    private static long read(SpellChecker checker, String[] baseWords, Writer[] writers, Phase phase, AtomicBoolean stop) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long lookups = 0;
+        while (!stop.get()) {
+            Writer writer = writers[random.nextInt(writers.length)];
+            int check = random.nextInt(8);
+            String word;
+            boolean ok;
+            if (check == 0 && writer.added.get() > 0) {
+                // An added word is found
+                word = writer.addedWords.get(random.nextInt(writer.added.get()));
+                ok = isExact(lookup(checker, word, phase), word);
+            } else if (check == 1 && writer.added.get() > 0) {
+                // A typo of an added word suggests it (the word was never removed)
+                String target = writer.addedWords.get(random.nextInt(writer.added.get()));
+                word = typo(target, random);
+                List<Suggestion> suggestions = lookup(checker, word, phase);
+                ok = suggestions.stream().anyMatch(s -> s.word.equals(target));
+            } else if (check == 2 && writer.removed.get() > 0) {
+                // A removed word is not found
+                word = writer.removedWords.get(random.nextInt(writer.removed.get()));
+                ok = !isExact(lookup(checker, word, phase), word);
+            } else if (check == 3 && writer.weight.get() > 0) {
+                // Weights only grow, so the one seen is at least the one published before
+                int published = writer.weight.get();
+                List<Suggestion> suggestions = lookup(checker, writer.weighted, phase);
+                ok = isExact(suggestions, writer.weighted) && suggestions.get(0).frequency >= published;
+                word = writer.weighted;
+            } else if (check == 4) {
+                word = baseWords[random.nextInt(baseWords.length)];
+                ok = isExact(lookup(checker, word, phase), word);
+            } else {
+                // Plain traffic: mostly typos of known words
+                lookup(checker, typo(baseWords[random.nextInt(baseWords.length)], random), phase);
+                lookups++;
+                continue;
+            }
+            lookups++;
+            phase.checks.increment();
+            if (!ok) {
+                phase.errors.increment();
+                if (phase.errors.sum() <= 5) {
+                    System.out.println("Check " + check + " failed for '" + word + "'");
+                }
+            }
+        }
+        return lookups;
+    }
+
+    private static List<Suggestion> lookup(SpellChecker checker, String word, Phase phase) {
+        long start = System.nanoTime();
+        List<Suggestion> suggestions = checker.findSuggestions(word);
+        phase.latency.record(System.nanoTime() - start);
+        return suggestions;
+    }
+
+    private static boolean isExact(List<Suggestion> suggestions, String word) {
+        return !suggestions.isEmpty() && suggestions.get(0).distance == 0 && suggestions.get(0).word.equals(word);
+    }
+
+    // Suggestions compared as sets of word/distance/frequency, since ties may be ordered by id
+    private static long compare(SpellChecker checker, SpellChecker fresh, List<String> words) {
+        long mismatches = 0;
+        for (String word : words) {
+            if (!key(checker.findSuggestions(word)).equals(key(fresh.findSuggestions(word)))
+                    || !key(checker.computeSuggestions(word)).equals(key(fresh.computeSuggestions(word)))) {
+                if (mismatches++ < 5) {
+                    System.out.println("Differs for '" + word + "'");
+                }
+            }
+        }
+        return mismatches;
+    }
+
+    private static Set<String> key(List<Suggestion> suggestions) {
+        Set<String> key = new HashSet<>();
+        for (Suggestion suggestion : suggestions) {
+            key.add(suggestion.word + "/" + suggestion.distance + "/" + suggestion.frequency);
+        }
+        return key;
+    }
+
+    private static String typo(String word, Random random) {
+        if (word.length() < 3) {
+            return word + LETTERS.charAt(random.nextInt(LETTERS.length()));
+        }
+        int i = 1 + random.nextInt(word.length() - 1);
+        return word.substring(0, i) + LETTERS.charAt(random.nextInt(LETTERS.length())) + word.substring(i + 1);
+    }
+
+    /**
+     * Adds new words (and keeps them), adds and removes throwaway words, and raises the weight
+     * of one word of its own, publishing each change after SpellChecker returned.
+     */
+    private static final class Writer {
+        final SpellChecker checker;
+        final Set<String> taken;
+        final Random random;
+        final String weighted;
+
+        final List<String> addedWords = Collections.synchronizedList(new ArrayList<>());
+        final Map<String, Integer> addedFrequencies = new ConcurrentHashMap<>();
+        final AtomicInteger added = new AtomicInteger();
+        final List<String> removedWords = Collections.synchronizedList(new ArrayList<>());
+        final AtomicInteger removed = new AtomicInteger();
+        final AtomicInteger weight = new AtomicInteger();
+        long changes;
+
+        Writer(SpellChecker checker, Set<String> taken, int seed) {
+            this.checker = checker;
+            this.taken = taken;
+            this.random = new Random(seed);
+            this.weighted = newWord();
+        }
+
+        void write(AtomicBoolean stop) {
+            for (int i = 0; !stop.get(); i++) {
+                switch (i % 4) {
+                    case 0:
+                    case 1:
+                        String word = newWord();
+                        int frequency = 1 + random.nextInt(1_000_000);
+                        checker.addWord(word, frequency);
+                        addedWords.add(word);
+                        addedFrequencies.put(word, frequency);
+                        added.incrementAndGet();
+                        changes++;
+                        break;
+                    case 2:
+                        String throwaway = newWord();
+                        checker.addWord(throwaway, 1 + random.nextInt(1_000_000));
+                        checker.removeWord(throwaway);
+                        removedWords.add(throwaway);
+                        removed.incrementAndGet();
+                        changes += 2;
+                        break;
+                    default:
+                        int next = weight.get() + 1 + random.nextInt(1000);
+                        checker.addWord(weighted, next);
+                        weight.set(next);
+                        changes++;
+                }
+            }
+        }
+
+        void addExpected(Map<String, Integer> expected) {
+            for (String word : addedWords) {
+                expected.put(word, addedFrequencies.get(word));
+            }
+            if (weight.get() > 0) {
+                expected.put(weighted, weight.get());
+            }
+        }
+
+        // Letters only, in neither the dictionary nor any writer's words
+        private String newWord() {
+            while (true) {
+                StringBuilder word = new StringBuilder();
+                int length = 6 + random.nextInt(5);
+                for (int i = 0; i < length; i++) {
+                    word.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+                }
+                if (taken.add(word.toString())) {
+                    return word.toString();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.chatbot.spellchecker;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH: one loadDictionary call, from the built-in word list, the full frequency file and its
+ * snapshot.
+ *
+ * The frequency file is copied to a temporary file first, so that a snapshot the user compiled
+ * next to the real file cannot turn the text case into a snapshot load. Each call is timed on
+ * its own (single shot), since a load is a one-off event and should not be measured in a warm loop.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoadDictionaryBench {
+
+    @Param({"builtin", "frequency", "snapshot"})
+    public String source;
+
+    private String path;
+
+    @Setup
+    public void setUp() throws IOException {
+        if (source.equals("builtin")) {
+            path = BenchmarkData.BUILTIN;
+            return;
+        }
+        Path copy = Files.createTempFile("benchmark_dictionary", ".txt");
+        Files.copy(Paths.get(BenchmarkData.dictionary("frequency")), copy, StandardCopyOption.REPLACE_EXISTING);
+        path = copy.toString();
+        if (source.equals("snapshot")) {
+            SpellChecker.compileDictionary(path, SpellChecker.snapshotPath(path));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (!source.equals("builtin")) {
+            Files.deleteIfExists(Paths.get(path));
+            Files.deleteIfExists(Paths.get(SpellChecker.snapshotPath(path)));
+        }
+    }
+
+    @Benchmark
+    public SpellChecker loadDictionary() {
+        SpellChecker checker = new SpellChecker(Collections.emptyMap());
+        checker.loadDictionary(path);
+        return checker;
+    }
+}
@@ -0,0 +1,197 @@
+package com.chatbot.spellchecker;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Size of the n-gram model and what context ranking adds to the time per token.
+ *
+ * A synthetic corpus is generated where each word is followed by a Zipf-distributed choice
+ * among words that depend on it, so that it has the long tail of distinct bigrams and trigrams
+ * of real text. The benchmark builds and maps the model, then ranks misspelled tokens by their
+ * context: each gets the word that really followed plus other suggestions at the same distance,
+ * as many as correct() ranks, in random order. The p99 of bestInContext must stay within SCORING_BUDGET_NANOS;
+ * the run fails otherwise. Finally it corrects sentences with typos with and without the model.
+ *
+ * Usage: java NGramBenchmark [million corpus words] [vocabulary size]
+ */
+public class NGramBenchmark {
+    // Added time per misspelled token at p99, including two clock reads of about 40 ns. Ranking
+    // costs about two cache misses per suggestion (its word id, then its bigram), so this allows
+    // for the most suggestions correct() ranks, on a table much larger than the CPU caches.
+    static final long SCORING_BUDGET_NANOS = 10_000;
+
+    private static final int SUGGESTIONS = SpellChecker.CONTEXT_CANDIDATES;
+    private static final int SCORED_TOKENS = 200_000;
+    private static final int SENTENCES = 2_000;
+    private static final int ROUNDS = 20;
+
+    public static void main(String[] args) throws IOException {
+        long corpusWords = (long) ((args.length > 0 ? Double.parseDouble(args[0]) : 10) * 1_000_000);
+        int vocabularySize = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+        Random random = new Random(42);
+        String[] words = vocabulary(vocabularySize, random);
+        double[] zipf = zipf(vocabularySize);
+
+        Path corpus = Files.createTempFile("ngram-corpus", ".txt");
+        Path model = Files.createTempFile("ngram-model", ".bin");
+        try {
+            long start = System.nanoTime();
+            try (BufferedWriter out = Files.newBufferedWriter(corpus)) {
+                for (long written = 0; written < corpusWords; ) {
+                    int[] sentence = sentence(zipf, random);
+                    for (int i = 0; i < sentence.length; i++) {
+                        out.write(words[sentence[i]]);
+                        out.write(i == sentence.length - 1 ? ".\n" : " ");
+                    }
+                    written += sentence.length;
+                }
+            }
+            System.out.printf("Corpus: %,d words over %,d distinct, %d MB, written in %.1f s%n", corpusWords,
+                    vocabularySize, Files.size(corpus) >> 20, (System.nanoTime() - start) / 1e9);
+
+            start = System.nanoTime();
+            SpellChecker.buildNGrams(corpus.toString(), model.toString(), 1);
+            double buildSeconds = (System.nanoTime() - start) / 1e9;
+            start = System.nanoTime();
+            NGramModel ngrams = NGramModel.open(model.toString());
+            double openMillis = (System.nanoTime() - start) / 1e6;
+            System.out.printf("Model:  %,d n-grams of %,d words, %d MB (%.1f bytes per n-gram), built in %.1f s, mapped in %.1f ms%n",
+                    ngrams.ngramCount(), ngrams.vocabularySize() - 2, ngrams.sizeInBytes() >> 20,
+                    (double) ngrams.sizeInBytes() / ngrams.ngramCount(), buildSeconds, openMillis);
+
+            // Rank the word that followed among SUGGESTIONS candidates, as correct() would
+            Histogram nanos = new Histogram();
+            int picked = 0;
+            for (int round = 0; round < 2; round++) {
+                nanos.reset();
+                picked = 0;
+                for (int token = 0; token < SCORED_TOKENS; ) {
+                    int[] sentence = sentence(zipf, random);
+                    NGramModel.Context context = new NGramModel.Context();
+                    context.startSentence();
+                    for (int i = 0; i < sentence.length; i++, token++) {
+                        List<Suggestion> suggestions = new ArrayList<>();
+                        suggestions.add(new Suggestion(words[sentence[i]], 1, 1000));
+                        for (int j = 1; j < SUGGESTIONS; j++) {
+                            suggestions.add(new Suggestion(words[random.nextInt(vocabularySize)], 1, 1000));
+                        }
+                        Collections.shuffle(suggestions, random);
+                        long begin = System.nanoTime();
+                        Suggestion best = SpellChecker.bestInContext(suggestions, ngrams, context);
+                        nanos.record(System.nanoTime() - begin);
+                        if (best.word.equals(words[sentence[i]])) {
+                            picked++;
+                        }
+                        context.push(words[sentence[i]]);
+                    }
+                }
+            }
+            long p99 = nanos.percentile(99);
+            System.out.printf("Context ranking of %d suggestions: %s (ns)%n", SUGGESTIONS, nanos.summary(1));
+            System.out.printf("  picked the word that followed for %.1f%% of the tokens (%.1f%% by chance)%n",
+                    100.0 * picked / nanos.count(), 100.0 / SUGGESTIONS);
+            System.out.printf("  p99 %d ns, budget %d ns: %s%n", p99, SCORING_BUDGET_NANOS,
+                    p99 <= SCORING_BUDGET_NANOS ? "within budget" : "OVER BUDGET");
+
+            // End to end: sentences with one typo each, corrected with and without the model
+            Map<String, Integer> dictionary = new HashMap<>();
+            for (int id = 0; id < vocabularySize; id++) {
+                dictionary.put(words[id], (int) Math.max(1, (zipf[id] - (id == 0 ? 0 : zipf[id - 1])) * 1e8));
+            }
+            SpellChecker checker = new SpellChecker(dictionary);
+            List<String> texts = new ArrayList<>();
+            long tokens = 0;
+            for (int n = 0; n < SENTENCES; n++) {
+                int[] sentence = sentence(zipf, random);
+                int typo = random.nextInt(sentence.length);
+                StringBuilder text = new StringBuilder();
+                for (int i = 0; i < sentence.length; i++) {
+                    text.append(i == 0 ? "" : " ").append(i == typo ? misspell(words[sentence[i]], random) : words[sentence[i]]);
+                }
+                texts.add(text.toString());
+                tokens += sentence.length;
+            }
+            double without = correctAll(checker, texts, tokens);
+            checker.setNGrams(ngrams);
+            double with = correctAll(checker, texts, tokens);
+            checker.setNGrams(null);
+            double withoutAgain = correctAll(checker, texts, tokens);
+            System.out.printf("correct(): %.2f us/token without the model, %.2f us/token with it (%.2f again without)%n",
+                    Math.min(without, withoutAgain), with, withoutAgain);
+            if (p99 > SCORING_BUDGET_NANOS) {
+                System.exit(1);
+            }
+        } finally {
+            Files.deleteIfExists(corpus);
+            Files.deleteIfExists(model);
+        }
+    }
+
+    // Microseconds per token, after a warm-up round that also fills the suggestion cache
+    private static double correctAll(SpellChecker checker, List<String> texts, long tokens) {
+        for (String text : texts) {
+            checker.correct(text);
+        }
+        long start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            for (String text : texts) {
+                checker.correct(text);
+            }
+        }
+        return (System.nanoTime() - start) / 1e3 / tokens / ROUNDS;
+    }
+
+    // Distinct lowercase words of 3 to 10 letters
+    private static String[] vocabulary(int size, Random random) {
+        Set<String> words = new LinkedHashSet<>();
+        while (words.size() < size) {
+            char[] word = new char[3 + random.nextInt(8)];
+            for (int i = 0; i < word.length; i++) {
+                word[i] = (char) ('a' + random.nextInt(26));
+            }
+            words.add(new String(word));
+        }
+        return words.toArray(new String[0]);
+    }
+
+    // Cumulative Zipf distribution with exponent 1
+    private static double[] zipf(int size) {
+        double[] cumulative = new double[size];
+        double total = 0;
+        for (int i = 0; i < size; i++) {
+            total += 1.0 / (i + 1);
+            cumulative[i] = total;
+        }
+        for (int i = 0; i < size; i++) {
+            cumulative[i] /= total;
+        }
+        return cumulative;
+    }
+
+    // 5 to 20 word ids; each word picks its successor by rank among words offset by its own id
+    private static int[] sentence(double[] zipf, Random random) {
+        int[] sentence = new int[5 + random.nextInt(16)];
+        int previous = 0;
+        for (int i = 0; i < sentence.length; i++) {
+            int rank = sample(zipf, random);
+            sentence[i] = i == 0 ? rank : (int) ((rank + (long) previous * 7919) % zipf.length);
+            previous = sentence[i];
+        }
+        return sentence;
+    }
+
+    private static int sample(double[] zipf, Random random) {
+        int i = Arrays.binarySearch(zipf, random.nextDouble());
+        return Math.min(zipf.length - 1, i >= 0 ? i : -i - 1);
+    }
+
+    private static String misspell(String word, Random random) {
+        char[] chars = word.toCharArray();
+        chars[random.nextInt(chars.length)] = (char) ('a' + random.nextInt(26));
+        return new String(chars);
+    }
+}
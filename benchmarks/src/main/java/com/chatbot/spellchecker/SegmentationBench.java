@@ -0,0 +1,102 @@
+package com.chatbot.spellchecker;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH: splitting run-together tokens, for realistic glued words and for adversarial tokens of
+ * 1,000 characters that a chat user (or a pasted log line) can send.
+ *
+ * segment is the segmentation alone; correct is the whole text correction of the token,
+ * including the suggestion lookup it is compared with.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SegmentationBench {
+    private static final int ADVERSARIAL_LENGTH = 1000;
+
+    @Param({"builtin", "frequency"})
+    public String dictionary;
+
+    // glued:       three words, the case segmentation is for
+    // gluedCode:   a word glued to a number
+    // wordChain:   dictionary words glued together, so that most positions start a word
+    // garbage:     random letters
+    // repeated:    one letter repeated
+    // alternating: letters and digits alternating, so every piece is a number or code candidate
+    @Param({"glued", "gluedCode", "wordChain", "garbage", "repeated", "alternating"})
+    public String input;
+
+    private SpellChecker checker;
+    private Segmenter segmenter;
+    private IdentifierRecognizer identifiers;
+    private String token;
+
+    @Setup
+    public void setUp() throws IOException {
+        checker = BenchmarkData.checker(dictionary);
+        segmenter = checker.segmenter();
+        identifiers = checker.identifiers();
+        Random random = new Random(12);
+        StringBuilder builder = new StringBuilder();
+        switch (input) {
+            case "glued":
+                builder.append("partsfailedlist");
+                break;
+            case "gluedCode":
+                builder.append("contract123456");
+                break;
+            case "wordChain":
+                List<String> words = new ArrayList<>();
+                for (String word : SpellCheckerBenchmark.VOCABULARY) {
+                    List<Suggestion> suggestions = checker.computeSuggestions(word);
+                    if (word.length() > 1 && !suggestions.isEmpty() && suggestions.get(0).distance == 0) {
+                        words.add(word);
+                    }
+                }
+                while (builder.length() < ADVERSARIAL_LENGTH) {
+                    builder.append(words.get(random.nextInt(words.size())));
+                }
+                break;
+            case "garbage":
+                while (builder.length() < ADVERSARIAL_LENGTH) {
+                    builder.append((char) ('a' + random.nextInt(26)));
+                }
+                break;
+            case "repeated":
+                while (builder.length() < ADVERSARIAL_LENGTH) {
+                    builder.append('e');
+                }
+                break;
+            default:
+                while (builder.length() < ADVERSARIAL_LENGTH) {
+                    builder.append((char) ('a' + random.nextInt(26))).append((char) ('0' + random.nextInt(10)));
+                }
+        }
+        token = builder.toString();
+
+        // The realistic cases must actually split, or they measure the early exit
+        if ((input.equals("glued") || input.equals("gluedCode") || input.equals("wordChain")) && segment() == null) {
+            throw new IllegalStateException("'" + token + "' was not split");
+        }
+    }
+
+    @Benchmark
+    public Segmenter.Segmentation segment() {
+        return segmenter.segment(token, 0, token.length(), identifiers);
+    }
+
+    @Benchmark
+    public CorrectionResult correct() {
+        return checker.correct(token);
+    }
+}
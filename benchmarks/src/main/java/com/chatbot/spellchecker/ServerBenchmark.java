@@ -0,0 +1,110 @@
+package com.chatbot.spellchecker;
+
+import java.io.File;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Local load generator for CorrectionServer.
+ *
+ * Starts the server in-process on a free port (or targets a running one), then keeps CLIENTS
+ * concurrent keep-alive connections busy for a fixed time with a mix of /text and /word requests
+ * taken from test_parts_queries.txt. Reports requests per second and p50/p99/max latency.
+ *
+ * Usage: java ServerBenchmark [seconds] [clients] [base url] [dictionary file]
+ */
+public class ServerBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        String baseUrl = args.length > 2 ? args[2] : null;
+        String dictionaryPath = args.length > 3 ? args[3] : "frequency_dictionary_en_82_765.txt";
+
+        CorrectionServer server = null;
+        if (baseUrl == null) {
+            SpellChecker checker = new SpellChecker(Collections.emptyMap());
+            checker.loadDictionary(dictionaryPath);
+            server = new CorrectionServer(checker, 0);
+            server.start();
+            baseUrl = "http://localhost:" + server.port();
+            System.out.println("Server on " + baseUrl + " using "
+                    + (CorrectionServer.usesVirtualThreads() ? "virtual threads" : "a platform thread pool"));
+        }
+
+        List<URI> requests = new ArrayList<>();
+        for (String line : Files.readAllLines(Paths.get("test_parts_queries.txt"))) {
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            requests.add(URI.create(baseUrl + "/text?q=" + URLEncoder.encode(line, StandardCharsets.UTF_8)));
+            String firstWord = line.trim().split("\\s+")[0];
+            requests.add(URI.create(baseUrl + "/word?q=" + URLEncoder.encode(firstWord, StandardCharsets.UTF_8)));
+        }
+
+        // One HTTP/1.1 client reuses its connections between requests
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(4))
+                .build();
+
+        // Warm-up so that the JIT and the suggestion cache are in steady state
+        for (URI uri : requests) {
+            client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofString());
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            int offset = c;
+            futures.add(pool.submit(() -> {
+                long[] latencies = new long[4096];
+                int count = 0;
+                for (int i = offset; System.nanoTime() < end; i++) {
+                    HttpRequest request = HttpRequest.newBuilder(requests.get(i % requests.size())).build();
+                    long start = System.nanoTime();
+                    HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                    long latency = System.nanoTime() - start;
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException("HTTP " + response.statusCode() + ": " + response.body());
+                    }
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = latency;
+                }
+                return Arrays.copyOf(latencies, count);
+            }));
+        }
+
+        long[] all = new long[0];
+        for (Future<long[]> future : futures) {
+            long[] latencies = future.get();
+            int previous = all.length;
+            all = Arrays.copyOf(all, previous + latencies.length);
+            System.arraycopy(latencies, 0, all, previous, latencies.length);
+        }
+        pool.shutdown();
+        Arrays.sort(all);
+
+        System.out.printf("%d clients, %d s: %,d requests, %.0f req/s%n", clients, seconds, all.length, all.length / (double) seconds);
+        System.out.printf("latency p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                all[all.length / 2] / 1e6, all[Math.min(all.length - 1, (int) (all.length * 0.99))] / 1e6, all[all.length - 1] / 1e6);
+
+        if (server != null) {
+            server.stop();
+        }
+        System.exit(0);
+    }
+}
@@ -0,0 +1,105 @@
+package com.chatbot.spellchecker;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput of the sharded suggestion service as the number of worker JVMs grows.
+ *
+ * For each shard count, workers are launched on localhost, the merged results are checked
+ * against a single in-process SpellChecker, and then concurrent clients issue lookups for a
+ * fixed time. Reports lookups per second, p50/p99 latency and how many results were partial.
+ *
+ * Usage: java ShardBenchmark [dictionary file] [max shards] [seconds per run]
+ */
+public class ShardBenchmark {
+    private static final int CLIENTS = 8;
+    private static final int LIMIT = 5;
+    private static final long TIMEOUT_MILLIS = 200;
+
+    public static void main(String[] args) throws Exception {
+        String dictionaryPath = args.length > 0 ? args[0] : "frequency_dictionary_en_82_765.txt";
+        int maxShards = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        if (!new File(dictionaryPath).exists()) {
+            dictionaryPath = SpellCheckerBenchmark.writeSyntheticDictionary().toString();
+            System.out.println("Using synthetic dictionary");
+        }
+
+        SpellChecker reference = new SpellChecker(SpellChecker.readDictionary(dictionaryPath, word -> true));
+        System.out.println("Available processors: " + Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-8s %12s %10s %10s %10s%n", "shards", "lookups/s", "p50 ms", "p99 ms", "partial");
+
+        for (int shards = 1; shards <= maxShards; shards *= 2) {
+            try (ShardCoordinator coordinator = ShardCoordinator.launchLocal(dictionaryPath, shards)) {
+                verify(coordinator, reference);
+                run(coordinator, shards, seconds);
+            }
+        }
+    }
+
+    // Distances and frequencies of the merged top-k must match the single-process ranking
+    private static void verify(ShardCoordinator coordinator, SpellChecker reference) throws IOException {
+        for (String query : SpellCheckerBenchmark.QUERIES) {
+            List<Suggestion> expected = reference.findSuggestions(query);
+            List<Suggestion> actual = coordinator.findSuggestions(query, LIMIT, 5000).suggestions;
+            for (int i = 0; i < Math.min(LIMIT, expected.size()); i++) {
+                if (i >= actual.size()
+                        || expected.get(i).distance != actual.get(i).distance
+                        || expected.get(i).frequency != actual.get(i).frequency) {
+                    throw new IOException("Sharded ranking differs for '" + query + "'");
+                }
+            }
+        }
+    }
+
+    private static void run(ShardCoordinator coordinator, int shards, int seconds) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        AtomicLong partial = new AtomicLong();
+        List<Future<long[]>> futures = new ArrayList<>();
+
+        for (int c = 0; c < CLIENTS; c++) {
+            int offset = c;
+            futures.add(clients.submit(() -> {
+                long[] latencies = new long[1024];
+                int count = 0;
+                for (int i = offset; System.nanoTime() < end; i++) {
+                    String query = SpellCheckerBenchmark.QUERIES[i % SpellCheckerBenchmark.QUERIES.length];
+                    long start = System.nanoTime();
+                    if (coordinator.findSuggestions(query, LIMIT, TIMEOUT_MILLIS).isPartial()) {
+                        partial.incrementAndGet();
+                    }
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = System.nanoTime() - start;
+                }
+                return Arrays.copyOf(latencies, count);
+            }));
+        }
+
+        long[] all = new long[0];
+        for (Future<long[]> future : futures) {
+            long[] latencies = future.get();
+            int previous = all.length;
+            all = Arrays.copyOf(all, previous + latencies.length);
+            System.arraycopy(latencies, 0, all, previous, latencies.length);
+        }
+        clients.shutdown();
+
+        Arrays.sort(all);
+        System.out.printf("%-8d %12.0f %10.2f %10.2f %10d%n", shards, all.length / (double) seconds,
+                percentile(all, 0.50) / 1e6, percentile(all, 0.99) / 1e6, partial.get());
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))];
+    }
+}
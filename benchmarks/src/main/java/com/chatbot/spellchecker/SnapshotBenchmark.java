@@ -0,0 +1,90 @@
+package com.chatbot.spellchecker;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Startup time and heap size with the text dictionary vs. the memory-mapped snapshot.
+ *
+ * Each mode runs in a fresh JVM, as in test_parts_system.sh, which starts one per query. The
+ * child JVM loads the dictionary, answers the benchmark queries once and reports the load time,
+ * the time to the first answers and the heap in use after a full GC.
+ *
+ * Usage: java SnapshotBenchmark [dictionary file]
+ */
+public class SnapshotBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 1 && args[0].equals("child")) {
+            child(args[1]);
+            return;
+        }
+
+        String dictionaryPath = args.length > 0 ? args[0] : "frequency_dictionary_en_82_765.txt";
+        Path directory = Files.createTempDirectory("snapshot_benchmark");
+        Path dictionary = directory.resolve("dictionary.txt");
+        if (new File(dictionaryPath).exists()) {
+            Files.copy(Paths.get(dictionaryPath), dictionary);
+        } else {
+            Files.copy(SpellCheckerBenchmark.writeSyntheticDictionary(), dictionary);
+            System.out.println("Using synthetic dictionary");
+        }
+
+        String text = launch(dictionary);
+        long start = System.nanoTime();
+        SpellChecker.compileDictionary(dictionary.toString(), SpellChecker.snapshotPath(dictionary.toString()));
+        System.out.printf("compile-dictionary: %.0f ms, snapshot %.1f MB%n", (System.nanoTime() - start) / 1e6,
+                new File(SpellChecker.snapshotPath(dictionary.toString())).length() / 1e6);
+        String snapshot = launch(dictionary);
+
+        System.out.printf("%-10s %10s %14s %10s%n", "mode", "load ms", "first answer", "heap MB");
+        System.out.println("text       " + text.substring(0, text.lastIndexOf(' ')));
+        System.out.println("snapshot   " + snapshot.substring(0, snapshot.lastIndexOf(' ')));
+        String textAnswers = text.substring(text.lastIndexOf(' ') + 1);
+        String snapshotAnswers = snapshot.substring(snapshot.lastIndexOf(' ') + 1);
+        System.out.println("Ranking parity: " + (textAnswers.equals(snapshotAnswers) ? "identical" : "DIFFERENT"));
+    }
+
+    // Runs the child in a new JVM and returns its result line
+    private static String launch(Path dictionary) throws IOException, InterruptedException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                SnapshotBenchmark.class.getName(), "child", dictionary.toString())
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        String result = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("RESULT ")) {
+                    result = line.substring(7);
+                }
+            }
+        }
+        process.waitFor();
+        return result;
+    }
+
+    private static void child(String dictionaryPath) {
+        long start = System.nanoTime();
+        SpellChecker checker = new SpellChecker(Collections.emptyMap());
+        checker.loadDictionary(dictionaryPath);
+        long loaded = System.nanoTime();
+
+        // Distances and frequencies of the top suggestions, to compare the two modes
+        StringBuilder answers = new StringBuilder();
+        for (String query : SpellCheckerBenchmark.QUERIES) {
+            List<Suggestion> suggestions = checker.findSuggestions(query);
+            for (int i = 0; i < Math.min(3, suggestions.size()); i++) {
+                answers.append(suggestions.get(i).distance).append(':').append(suggestions.get(i).frequency).append(',');
+            }
+        }
+        long answered = System.nanoTime();
+
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        double heap = (runtime.totalMemory() - runtime.freeMemory()) / 1e6;
+        System.out.printf("RESULT %10.0f %14.0f %10.1f %s%n", (loaded - start) / 1e6, (answered - start) / 1e6, heap, answers);
+    }
+}
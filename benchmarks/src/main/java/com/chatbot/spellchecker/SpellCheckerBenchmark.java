@@ -0,0 +1,131 @@
+package com.chatbot.spellchecker;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Compares the indexed findSuggestions against the full dictionary scan.
+ *
+ * Uses frequency_dictionary_en_82_765.txt when it is present. Otherwise a synthetic dictionary
+ * of the same size is generated so the numbers are still representative of the real workload.
+ *
+ * Usage: java SpellCheckerBenchmark [dictionary file]
+ */
+public class SpellCheckerBenchmark {
+    static final String FREQUENCY_DICTIONARY = "frequency_dictionary_en_82_765.txt";
+    private static final int SYNTHETIC_WORDS = 82765;
+
+    // Words the parts chatbot actually has to correct, plus the README examples
+    static final String[] QUERIES = {
+        "contrcts", "numbr", "specifcations", "prduct", "actve", "discontnued", "provid",
+        "datashet", "compatble", "avalable", "stok", "lede", "manufacterer", "isses",
+        "warrenty", "priod", "shwo", "mee", "faield", "validdation", "loadded", "recieve",
+        "teh", "hav", "misspeled", "sentance", "quik", "pricng", "becasue", "successfull",
+        "parts", "failed", "contract", "xqzvtw", "a", "ab"
+    };
+
+    static final String[] VOCABULARY = {
+        "contracts", "number", "specifications", "product", "active", "discontinued", "provide",
+        "datasheet", "compatible", "available", "stock", "lead", "manufacturer", "issues",
+        "warranty", "period", "show", "me", "failed", "validation", "loaded", "receive",
+        "the", "have", "misspelled", "sentence", "quick", "pricing", "because", "successful",
+        "parts", "part", "contract", "a", "i", "is", "of", "what", "are", "list", "last"
+    };
+
+    public static void main(String[] args) throws IOException {
+        String dictionaryPath = args.length > 0 ? args[0] : FREQUENCY_DICTIONARY;
+        if (!new File(dictionaryPath).exists()) {
+            dictionaryPath = writeSyntheticDictionary().toString();
+            System.out.println("Using synthetic dictionary with " + SYNTHETIC_WORDS + " words");
+        }
+
+        SpellChecker checker = new SpellChecker(Collections.emptyMap());
+        long start = System.nanoTime();
+        checker.loadDictionary(dictionaryPath);
+        System.out.printf("Dictionary load + index build: %.1f ms%n", (System.nanoTime() - start) / 1e6);
+
+        // Both paths must agree before their timings mean anything
+        int mismatches = 0;
+        for (String query : QUERIES) {
+            if (!sameSuggestions(checker.scanSuggestions(query), checker.findSuggestions(query))) {
+                System.out.println("MISMATCH for '" + query + "'");
+                mismatches++;
+            }
+        }
+        System.out.println("Ranking parity: " + (mismatches == 0 ? "identical" : mismatches + " mismatches"));
+
+        double scan = measure(checker, true, 3);
+        double indexed = measure(checker, false, 200);
+        System.out.println();
+        System.out.printf("Full scan:  %10.1f us/lookup%n", scan);
+        System.out.printf("Indexed:    %10.1f us/lookup%n", indexed);
+        System.out.printf("Speedup:    %10.1fx%n", scan / indexed);
+    }
+
+    // Average microseconds per lookup over all QUERIES, after one warm-up round
+    private static double measure(SpellChecker checker, boolean scan, int rounds) {
+        long sink = 0;
+        for (int warmup = 0; warmup < Math.max(1, rounds / 10); warmup++) {
+            sink += runQueries(checker, scan);
+        }
+        long start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            sink += runQueries(checker, scan);
+        }
+        long elapsed = System.nanoTime() - start;
+        if (sink == 42) {
+            System.out.println();
+        }
+        return elapsed / 1e3 / ((double) rounds * QUERIES.length);
+    }
+
+    private static long runQueries(SpellChecker checker, boolean scan) {
+        long total = 0;
+        for (String query : QUERIES) {
+            total += (scan ? checker.scanSuggestions(query) : checker.findSuggestions(query)).size();
+        }
+        return total;
+    }
+
+    private static boolean sameSuggestions(List<Suggestion> a, List<Suggestion> b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            if (!a.get(i).word.equals(b.get(i).word) || a.get(i).distance != b.get(i).distance) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Pseudo-English words with a Zipf-like frequency distribution, deterministic across runs
+    static Path writeSyntheticDictionary() throws IOException {
+        Path path = Files.createTempFile("synthetic_dictionary", ".txt");
+        path.toFile().deleteOnExit();
+        Random random = new Random(82765);
+        String consonants = "bcdfghjklmnprstvwxyz";
+        String vowels = "aeiou";
+        Set<String> words = new LinkedHashSet<>(Arrays.asList(VOCABULARY));
+        while (words.size() < SYNTHETIC_WORDS) {
+            int length = 2 + Math.min(12, (int) Math.abs(random.nextGaussian() * 3 + 5));
+            StringBuilder word = new StringBuilder();
+            for (int i = 0; i < length; i++) {
+                String source = (i % 2 == 0) ^ random.nextInt(5) == 0 ? consonants : vowels;
+                word.append(source.charAt(random.nextInt(source.length())));
+            }
+            words.add(word.toString());
+        }
+
+        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+            int rank = 1;
+            for (String word : words) {
+                writer.write(word + " " + (100000000L / rank++) + "\n");
+            }
+        }
+        return path;
+    }
+}
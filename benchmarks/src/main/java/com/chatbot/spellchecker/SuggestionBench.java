@@ -0,0 +1,78 @@
+package com.chatbot.spellchecker;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH: findSuggestions for a known word, a distance-1 typo, a distance-3 typo and a word with no
+ * suggestion at all, against the built-in and the full frequency dictionary.
+ *
+ * findSuggestions is the public path, so repeated misses are answered by the suggestion cache;
+ * computeSuggestions is the same lookup without the cache, and topSuggestion the uncached
+ * lookup of only the best one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SuggestionBench {
+
+    @Param({"builtin", "frequency"})
+    public String dictionary;
+
+    @Param({"known", "distance1", "distance3", "noMatch"})
+    public String lookup;
+
+    private SpellChecker checker;
+    private String word;
+
+    @Setup
+    public void setUp() throws IOException {
+        checker = BenchmarkData.checker(dictionary);
+        int expected;
+        switch (lookup) {
+            case "known":
+                word = "contract";
+                expected = 0;
+                break;
+            case "distance1":
+                word = "contrct";
+                expected = 1;
+                break;
+            case "distance3":
+                word = "mnufcturr";
+                expected = 3;
+                break;
+            default:
+                word = "qxzjvkwy";
+                expected = -1;
+        }
+
+        // A case that does not measure what its name says would make the comparison meaningless
+        List<Suggestion> suggestions = checker.computeSuggestions(word);
+        int best = suggestions.isEmpty() ? -1 : suggestions.get(0).distance;
+        if (best != expected) {
+            throw new IllegalStateException("'" + word + "' has best distance " + best + ", expected " + expected);
+        }
+    }
+
+    @Benchmark
+    public List<Suggestion> findSuggestions() {
+        return checker.findSuggestions(word);
+    }
+
+    @Benchmark
+    public List<Suggestion> computeSuggestions() {
+        return checker.computeSuggestions(word);
+    }
+
+    @Benchmark
+    public List<Suggestion> topSuggestion() {
+        return checker.computeSuggestions(word, 1, SpellChecker.MAX_EDIT_DISTANCE, Suggestion.Verbosity.TOP);
+    }
+}
@@ -0,0 +1,187 @@
+package com.chatbot.spellchecker;
+
+import java.io.File;
+import java.util.*;
+
+/**
+ * Heap and lookup time of tenants layered over one shared dictionary, against a separate
+ * checker per tenant with its own copy of the dictionary.
+ *
+ * Each tenant belongs to one of four domains and adds its jargon and codes, reweights some
+ * dictionary words and suppresses a few. Tenants with an empty layer give the fixed cost of a
+ * checker (its cache and metrics), so the rest is what the layers cost. Separate copies are
+ * measured for a few tenants and multiplied out. Tenant suggestions are first checked against
+ * those copies: the same words, ranked the same.
+ *
+ * Usage: java TenantBenchmark [tenants] [words added per tenant] [dictionary file]
+ */
+public class TenantBenchmark {
+    private static final String[] DOMAINS = {"parts", "contracts", "warranty", "support"};
+    private static final int COPIES = 3;
+    private static final int TOKENS = 2000;
+    private static final int ROUNDS = 10;
+
+    public static void main(String[] args) throws Exception {
+        int tenants = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        int addedWords = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        String dictionaryPath = args.length > 2 ? args[2] : SpellCheckerBenchmark.FREQUENCY_DICTIONARY;
+        if (!new File(dictionaryPath).exists()) {
+            dictionaryPath = SpellCheckerBenchmark.writeSyntheticDictionary().toString();
+            System.out.println("Using synthetic dictionary");
+        }
+        Map<String, Integer> dictionary = SpellChecker.readDictionary(dictionaryPath, word -> true);
+        List<String> words = new ArrayList<>(dictionary.keySet());
+        Random random = new Random(42);
+
+        long before = usedHeap();
+        SpellChecker base = new SpellChecker(dictionary);
+        long baseHeap = usedHeap() - before;
+
+        List<Map<String, Integer>> layers = new ArrayList<>();
+        List<Set<String>> suppressed = new ArrayList<>();
+        for (int t = 0; t < tenants; t++) {
+            layers.add(layer(DOMAINS[t % DOMAINS.length], addedWords, words, random));
+            suppressed.add(suppressed(words, random));
+        }
+
+        before = usedHeap();
+        List<SpellChecker> empty = new ArrayList<>();
+        for (int t = 0; t < tenants; t++) {
+            empty.add(base.withOverlay(Collections.emptyMap(), Collections.emptySet()));
+        }
+        long emptyHeap = usedHeap() - before;
+        empty = null;
+
+        before = usedHeap();
+        List<SpellChecker> layered = new ArrayList<>();
+        for (int t = 0; t < tenants; t++) {
+            layered.add(base.withOverlay(layers.get(t), suppressed.get(t)));
+        }
+        long layeredHeap = usedHeap() - before;
+
+        before = usedHeap();
+        List<SpellChecker> copies = new ArrayList<>();
+        for (int t = 0; t < Math.min(COPIES, tenants); t++) {
+            Map<String, Integer> merged = new HashMap<>(dictionary);
+            merged.putAll(layers.get(t));
+            merged.keySet().removeAll(suppressed.get(t));
+            copies.add(new SpellChecker(merged));
+        }
+        long copyHeap = (usedHeap() - before) / copies.size();
+
+        System.out.printf("%,d dictionary words, %d tenants, each adding %d words, reweighting %d, suppressing %d%n",
+                dictionary.size(), tenants, addedWords, addedWords / 10, suppressed.get(0).size());
+        System.out.printf("%-34s %12s %14s%n", "", "heap MB", "per tenant KB");
+        System.out.printf("%-34s %12.1f %14s%n", "shared dictionary", baseHeap / 1e6, "");
+        System.out.printf("%-34s %12.1f %14.0f%n", "tenants, empty layers", emptyHeap / 1e6, emptyHeap / 1e3 / tenants);
+        System.out.printf("%-34s %12.1f %14.0f%n", "tenants, layered", layeredHeap / 1e6, layeredHeap / 1e3 / tenants);
+        System.out.printf("%-34s %12.1f %14.0f   (%d measured)%n", "tenants, separate copies", copyHeap * (double) tenants / 1e6,
+                copyHeap / 1e3, copies.size());
+
+        System.out.printf("%n%-34s %14s %14s%n", "uncached lookup (us)", "layered", "separate copy");
+        for (int t = 0; t < copies.size(); t++) {
+            String[] tokens = typos(words, layers.get(t), random);
+            check(layered.get(t), copies.get(t), tokens);
+            for (Suggestion.Verbosity verbosity : new Suggestion.Verbosity[] {Suggestion.Verbosity.TOP, Suggestion.Verbosity.ALL}) {
+                int k = verbosity == Suggestion.Verbosity.TOP ? 1 : 5;
+                double[] micros = micros(new SpellChecker[] {layered.get(t), copies.get(t)}, tokens, k, verbosity);
+                System.out.printf("%-34s %14.1f %14.1f%n", "tenant " + t + " (" + DOMAINS[t % DOMAINS.length] + ") "
+                        + verbosity + " k=" + k, micros[0], micros[1]);
+            }
+        }
+    }
+
+    // The domain's jargon and codes, and a tenth as many dictionary words reweighted
+    private static Map<String, Integer> layer(String domain, int added, List<String> words, Random random) {
+        Map<String, Integer> layer = new LinkedHashMap<>();
+        while (layer.size() < added) {
+            StringBuilder word = new StringBuilder(domain.substring(0, 2 + random.nextInt(3)));
+            for (int i = 0, length = 3 + random.nextInt(6); i < length; i++) {
+                word.append(random.nextInt(4) == 0 ? (char) ('0' + random.nextInt(10)) : (char) ('a' + random.nextInt(26)));
+            }
+            layer.put(word.toString(), 1 + random.nextInt(100_000));
+        }
+        while (layer.size() < added + added / 10) {
+            layer.put(words.get(random.nextInt(words.size())), 1 + random.nextInt(1_000_000));
+        }
+        return layer;
+    }
+
+    private static Set<String> suppressed(List<String> words, Random random) {
+        Set<String> suppressed = new HashSet<>();
+        while (suppressed.size() < 20) {
+            suppressed.add(words.get(random.nextInt(words.size())));
+        }
+        return suppressed;
+    }
+
+    // Dictionary and layer words with one or two random edits
+    private static String[] typos(List<String> words, Map<String, Integer> layer, Random random) {
+        List<String> layerWords = new ArrayList<>(layer.keySet());
+        String[] typos = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            StringBuilder typo = new StringBuilder(i % 2 == 0 ? words.get(random.nextInt(words.size()))
+                    : layerWords.get(random.nextInt(layerWords.size())));
+            for (int edit = 0, edits = 1 + random.nextInt(2); edit < edits && typo.length() > 1; edit++) {
+                int position = random.nextInt(typo.length());
+                if (random.nextBoolean()) {
+                    typo.setCharAt(position, (char) ('a' + random.nextInt(26)));
+                } else {
+                    typo.deleteCharAt(position);
+                }
+            }
+            typos[i] = typo.toString();
+        }
+        return typos;
+    }
+
+    // Same suggestions, ranked the same; words equally close and frequent may come in either order
+    private static void check(SpellChecker layered, SpellChecker copy, String[] tokens) {
+        for (String token : tokens) {
+            if (!ranked(layered.computeSuggestions(token)).equals(ranked(copy.computeSuggestions(token)))) {
+                throw new IllegalStateException("Suggestions for '" + token + "' differ from the separate copy");
+            }
+        }
+    }
+
+    private static List<String> ranked(List<Suggestion> suggestions) {
+        List<String> ranked = new ArrayList<>();
+        for (Suggestion suggestion : suggestions) {
+            ranked.add(String.format("%d %010d %s", suggestion.distance, Integer.MAX_VALUE - suggestion.frequency, suggestion.word));
+        }
+        List<String> sorted = new ArrayList<>(ranked);
+        Collections.sort(sorted);
+        for (int i = 0; i < ranked.size(); i++) {
+            // Only ties may be out of order
+            if (!ranked.get(i).substring(0, 13).equals(sorted.get(i).substring(0, 13))) {
+                throw new IllegalStateException("Suggestions out of rank order: " + suggestions);
+            }
+        }
+        return sorted;
+    }
+
+    // Microseconds per uncached lookup of each checker, the best of ROUNDS rounds taking turns
+    private static double[] micros(SpellChecker[] checkers, String[] tokens, int k, Suggestion.Verbosity verbosity) {
+        double[] best = new double[checkers.length];
+        Arrays.fill(best, Double.MAX_VALUE);
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int c = 0; c < checkers.length; c++) {
+                long start = System.nanoTime();
+                for (String token : tokens) {
+                    checkers[c].computeSuggestions(token, k, SpellChecker.MAX_EDIT_DISTANCE, verbosity);
+                }
+                best[c] = Math.min(best[c], (System.nanoTime() - start) / 1e3 / tokens.length);
+            }
+        }
+        return best;
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,107 @@
+package com.chatbot.spellchecker;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Uncached lookup time of the full suggestion list against the top-k lookups, for short and
+ * long misspelled tokens.
+ *
+ * Short tokens (2 to 4 letters) have thousands of dictionary words within 3 edits; long ones
+ * (9 letters and up) a few. The tokens are dictionary words with one or two random edits. Each
+ * top-k result is first checked against the head of the full list.
+ *
+ * Usage: java TopSuggestionsBenchmark [dictionary file]
+ */
+public class TopSuggestionsBenchmark {
+    private static final int TOKENS = 300;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws IOException {
+        String dictionaryPath = args.length > 0 ? args[0] : SpellCheckerBenchmark.FREQUENCY_DICTIONARY;
+        if (!new File(dictionaryPath).exists()) {
+            dictionaryPath = SpellCheckerBenchmark.writeSyntheticDictionary().toString();
+            System.out.println("Using synthetic dictionary");
+        }
+        Map<String, Integer> dictionary = SpellChecker.readDictionary(dictionaryPath, word -> true);
+        SpellChecker checker = new SpellChecker(dictionary);
+        Random random = new Random(42);
+        List<String> words = new ArrayList<>(dictionary.keySet());
+
+        String[][] groups = {
+            typos(words, dictionary, 2, 4, random),
+            typos(words, dictionary, 9, Integer.MAX_VALUE, random)
+        };
+        String[] groupNames = {"short (2-4)", "long (9+)"};
+
+        System.out.printf("%-14s %-14s %12s %12s%n", "tokens", "lookup", "us/lookup", "suggestions");
+        for (int g = 0; g < groups.length; g++) {
+            String[] tokens = groups[g];
+            check(checker, tokens);
+            run(checker, tokens, groupNames[g], "full list", 0, null);
+            run(checker, tokens, groupNames[g], "TOP", 1, Suggestion.Verbosity.TOP);
+            run(checker, tokens, groupNames[g], "CLOSEST k=5", 5, Suggestion.Verbosity.CLOSEST);
+            run(checker, tokens, groupNames[g], "ALL k=5", 5, Suggestion.Verbosity.ALL);
+            run(checker, tokens, groupNames[g], "ALL k=" + SpellChecker.CONTEXT_CANDIDATES,
+                    SpellChecker.CONTEXT_CANDIDATES, Suggestion.Verbosity.ALL);
+        }
+    }
+
+    // Microseconds per uncached lookup, over the last of ROUNDS rounds
+    private static void run(SpellChecker checker, String[] tokens, String group, String name, int k,
+                            Suggestion.Verbosity verbosity) {
+        long suggestions = 0;
+        long elapsed = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            suggestions = 0;
+            long start = System.nanoTime();
+            for (String token : tokens) {
+                suggestions += (verbosity == null ? checker.computeSuggestions(token)
+                        : checker.computeSuggestions(token, k, SpellChecker.MAX_EDIT_DISTANCE, verbosity)).size();
+            }
+            elapsed = System.nanoTime() - start;
+        }
+        System.out.printf("%-14s %-14s %12.1f %12.1f%n", group, name, elapsed / 1e3 / tokens.length,
+                (double) suggestions / tokens.length);
+    }
+
+    // TOP and ALL must return the head of the full list
+    private static void check(SpellChecker checker, String[] tokens) {
+        for (String token : tokens) {
+            List<Suggestion> full = checker.computeSuggestions(token);
+            List<Suggestion> top = checker.computeSuggestions(token, 5, SpellChecker.MAX_EDIT_DISTANCE, Suggestion.Verbosity.ALL);
+            for (int i = 0; i < Math.min(5, full.size()); i++) {
+                if (top.size() != Math.min(5, full.size()) || !top.get(i).word.equals(full.get(i).word)) {
+                    throw new IllegalStateException("Top 5 of '" + token + "' differ from the full list");
+                }
+            }
+        }
+    }
+
+    // Misspellings of dictionary words of the given length, not themselves in the dictionary
+    private static String[] typos(List<String> words, Map<String, Integer> dictionary, int minLength, int maxLength,
+                                  Random random) {
+        String[] typos = new String[TOKENS];
+        int count = 0;
+        while (count < TOKENS) {
+            String word = words.get(random.nextInt(words.size()));
+            if (word.length() < minLength || word.length() > maxLength) {
+                continue;
+            }
+            StringBuilder typo = new StringBuilder(word);
+            for (int edit = 0, edits = 1 + random.nextInt(2); edit < edits; edit++) {
+                int position = random.nextInt(typo.length());
+                if (random.nextBoolean() || typo.length() <= minLength) {
+                    typo.setCharAt(position, (char) ('a' + random.nextInt(26)));
+                } else {
+                    typo.deleteCharAt(position);
+                }
+            }
+            if (!dictionary.containsKey(typo.toString())) {
+                typos[count++] = typo.toString();
+            }
+        }
+        return typos;
+    }
+}
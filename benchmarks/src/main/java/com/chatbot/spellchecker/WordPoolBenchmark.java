@@ -0,0 +1,156 @@
+package com.chatbot.spellchecker;
+
+import java.io.File;
+import java.util.*;
+
+/**
+ * Heap per word, full GC time and lookup time of the WordPool that SymSpellIndex keeps its
+ * words in, compared with the String[] and HashMap<String, Integer> it used before.
+ *
+ * The words are the frequency dictionary (or the synthetic one) plus lowercased part codes
+ * from IdentifierBenchmark, the way a part catalog adds to the dictionary. Lookups are words
+ * as Strings, with hits and misses, and words as ranges of a mixed-case text, which the map
+ * can only look up after building a lowercase String.
+ *
+ * Usage: java WordPoolBenchmark [number of part codes] [dictionary file]
+ */
+public class WordPoolBenchmark {
+    private static final int QUERIES = 1 << 20;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        int codes = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        String dictionaryPath = args.length > 1 ? args[1] : "frequency_dictionary_en_82_765.txt";
+        if (!new File(dictionaryPath).exists()) {
+            dictionaryPath = SpellCheckerBenchmark.writeSyntheticDictionary().toString();
+            System.out.println("Using synthetic dictionary");
+        }
+        Random random = new Random(42);
+        Map<String, Integer> dictionary = new LinkedHashMap<>(SpellChecker.readDictionary(dictionaryPath, word -> true));
+        int dictionaryWords = dictionary.size();
+        for (String code : IdentifierBenchmark.syntheticCodes(codes, random)) {
+            dictionary.putIfAbsent(code.toLowerCase(), 1 + random.nextInt(100));
+        }
+        System.out.printf("%,d words: %,d from the dictionary, %,d part codes%n",
+                dictionary.size(), dictionaryWords, dictionary.size() - dictionaryWords);
+
+        // Each is measured alone, over the heap that the dictionary map itself takes
+        long before = usedHeap();
+        long baseGc = fullGcMillis();
+        Object[] map = stringsAndMap(dictionary);
+        long mapHeap = usedHeap() - before;
+        long mapGc = fullGcMillis() - baseGc;
+        map = null;
+
+        before = usedHeap();
+        WordPool pool = new WordPool(dictionary);
+        long poolHeap = usedHeap() - before;
+        long poolGc = fullGcMillis() - baseGc;
+
+        map = stringsAndMap(dictionary);
+        String[] words = (String[]) map[0];
+        @SuppressWarnings("unchecked")
+        Map<String, Integer> ids = (Map<String, Integer>) map[2];
+
+        System.out.printf("%-28s %12s %12s %12s%n", "", "bytes/word", "heap MB", "full GC ms");
+        System.out.printf("%-28s %12.1f %12.1f %12d%n", "String[] + HashMap", mapHeap / (double) pool.size(), mapHeap / 1e6, mapGc);
+        System.out.printf("%-28s %12.1f %12.1f %12d   (%.1f MB by its own count)%n", "WordPool", poolHeap / (double) pool.size(),
+                poolHeap / 1e6, poolGc, pool.sizeInBytes() / 1e6);
+
+        // Half hits, half misses one letter off; and the same words inside a mixed-case text
+        String[] queries = new String[QUERIES];
+        StringBuilder text = new StringBuilder();
+        int[] starts = new int[QUERIES];
+        int[] ends = new int[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            String word = words[random.nextInt(words.length)];
+            if (i % 2 == 1) {
+                char[] chars = word.toCharArray();
+                chars[random.nextInt(chars.length)] = 'q';
+                word = new String(chars);
+            }
+            // A copy, as text read from input is never the dictionary's own String
+            queries[i] = new String(word.toCharArray());
+            starts[i] = text.length();
+            for (int c = 0; c < word.length(); c++) {
+                char ch = word.charAt(c);
+                text.append(random.nextBoolean() ? Character.toUpperCase(ch) : ch);
+            }
+            ends[i] = text.length();
+            text.append(' ');
+        }
+
+        System.out.printf("%-28s %12s %12s%n", "lookup", "ns/op", "found");
+        for (int round = 0; round < ROUNDS; round++) {
+            boolean report = round == ROUNDS - 1;
+            long start = System.nanoTime();
+            int found = 0;
+            for (String query : queries) {
+                found += ids.get(query) != null ? 1 : 0;
+            }
+            report(report, "HashMap.get(String)", start, found);
+
+            start = System.nanoTime();
+            found = 0;
+            for (String query : queries) {
+                found += pool.idOf(query) >= 0 ? 1 : 0;
+            }
+            report(report, "WordPool.idOf(String)", start, found);
+
+            start = System.nanoTime();
+            found = 0;
+            for (int i = 0; i < QUERIES; i++) {
+                found += ids.get(text.substring(starts[i], ends[i]).toLowerCase()) != null ? 1 : 0;
+            }
+            report(report, "HashMap, text range", start, found);
+
+            start = System.nanoTime();
+            found = 0;
+            for (int i = 0; i < QUERIES; i++) {
+                found += pool.idOf(text, starts[i], ends[i], true) >= 0 ? 1 : 0;
+            }
+            report(report, "WordPool, text range", start, found);
+        }
+    }
+
+    // One String per word, their frequencies and a map from words to ids, as SymSpellIndex kept them
+    private static Object[] stringsAndMap(Map<String, Integer> dictionary) {
+        String[] words = new String[dictionary.size()];
+        int[] frequencies = new int[dictionary.size()];
+        Map<String, Integer> ids = new HashMap<>(dictionary.size() * 2);
+        int id = 0;
+        for (Map.Entry<String, Integer> entry : dictionary.entrySet()) {
+            // Copies, so that the strings are counted as they would be when read from the file
+            words[id] = new String(entry.getKey().toCharArray());
+            frequencies[id] = entry.getValue();
+            ids.put(words[id], id++);
+        }
+        return new Object[] {words, frequencies, ids};
+    }
+
+    private static void report(boolean report, String name, long start, int found) {
+        if (report) {
+            System.out.printf("%-28s %12.1f %12d%n", name, (System.nanoTime() - start) / (double) QUERIES, found);
+        }
+    }
+
+    // Duration of a full GC with what is live now, the best of three
+    private static long fullGcMillis() {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            System.gc();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1_000_000;
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
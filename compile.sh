@@ -2,9 +2,10 @@
 
 echo "=== Compiling Simple Java Spell Checker ==="
 
-# Compile Java source (no external dependencies needed)
-echo "Compiling SpellChecker.java..."
-javac SpellChecker.java
+# Compile Java sources into build/ (no external dependencies needed, Maven optional)
+echo "Compiling Java sources..."
+mkdir -p build
+javac -d build $(find spellchecker/src/main/java -name '*.java')
 
 if [ $? -eq 0 ]; then
     echo "Compilation successful!"
@@ -12,4 +13,4 @@ if [ $? -eq 0 ]; then
 else
     echo "Compilation failed!"
     exit 1
-fi
\ No newline at end of file
+fi
@@ -3,11 +3,11 @@
 echo "=== Running Simple Java Spell Checker ==="
 
 # Check if class file exists
-if [ ! -f "SpellChecker.class" ]; then
+if [ ! -f "build/com/chatbot/spellchecker/SpellChecker.class" ]; then
     echo "Error: SpellChecker.class not found"
     echo "Please run './compile.sh' first to compile the program"
     exit 1
 fi
 
-# Run the spell checker (no external dependencies needed)
-java SpellChecker
\ No newline at end of file
+# Run the spell checker (no external dependencies needed); arguments select a mode, e.g. 'serve 8080'
+java -cp build com.chatbot.spellchecker.SpellChecker "$@"
@@ -0,0 +1,128 @@
+package com.chatbot.spellchecker;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Streams a query log through SpellChecker.correct on all cores and writes one JSON line per
+ * input line, in input order.
+ *
+ * The reader cuts the input into chunks of CHUNK_LINES lines and hands each chunk to a worker
+ * pool. The futures go into a bounded queue in input order, and the writer drains that queue
+ * head first, so output order matches input order without reordering buffers. Because the
+ * queue is bounded, the reader blocks when the writer falls behind, and memory use depends
+ * only on the thread count and chunk size, not on the size of the input.
+ */
+final class BatchCorrector {
+    private static final int CHUNK_LINES = 256;
+
+    private final SpellChecker checker;
+    private final int threads;
+
+    BatchCorrector(SpellChecker checker, int threads) {
+        this.checker = checker;
+        this.threads = threads;
+    }
+
+    // Returns the number of lines processed
+    long run(Reader input, Writer output) throws IOException {
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        ExecutorService writerThread = Executors.newSingleThreadExecutor();
+        BlockingQueue<Future<String>> inFlight = new ArrayBlockingQueue<>(threads * 4);
+        Future<Long> writer = writerThread.submit(() -> write(inFlight, output));
+
+        long lines = 0;
+        try (BufferedReader reader = new BufferedReader(input, 1 << 16)) {
+            List<String> chunk = new ArrayList<>(CHUNK_LINES);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                chunk.add(line);
+                lines++;
+                if (chunk.size() == CHUNK_LINES) {
+                    submit(workers, inFlight, chunk, writer);
+                    chunk = new ArrayList<>(CHUNK_LINES);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                submit(workers, inFlight, chunk, writer);
+            }
+            // An empty result marks the end of the input
+            putInOrder(inFlight, CompletableFuture.completedFuture(null), writer);
+            writer.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Batch correction interrupted");
+        } catch (ExecutionException e) {
+            throw new IOException("Batch correction failed", e.getCause());
+        } finally {
+            workers.shutdownNow();
+            writerThread.shutdownNow();
+        }
+        return lines;
+    }
+
+    private void submit(ExecutorService workers, BlockingQueue<Future<String>> inFlight, List<String> chunk,
+                        Future<Long> writer) throws InterruptedException, ExecutionException {
+        putInOrder(inFlight, workers.submit(() -> correctChunk(chunk)), writer);
+    }
+
+    // Blocks while the queue is full, but gives up if the writer died
+    private static void putInOrder(BlockingQueue<Future<String>> inFlight, Future<String> result, Future<Long> writer)
+            throws InterruptedException, ExecutionException {
+        while (!inFlight.offer(result, 100, TimeUnit.MILLISECONDS)) {
+            if (writer.isDone()) {
+                writer.get();
+                throw new ExecutionException(new IOException("Batch writer stopped"));
+            }
+        }
+    }
+
+    private String correctChunk(List<String> chunk) {
+        StringBuilder json = new StringBuilder(chunk.size() * 160);
+        for (String line : chunk) {
+            json.append(checker.correct(line).toJson()).append('\n');
+        }
+        return json.toString();
+    }
+
+    private static long write(BlockingQueue<Future<String>> inFlight, Writer output) throws Exception {
+        long chunks = 0;
+        try (BufferedWriter writer = new BufferedWriter(output, 1 << 16)) {
+            while (true) {
+                String json = inFlight.take().get();
+                if (json == null) {
+                    return chunks;
+                }
+                writer.write(json);
+                chunks++;
+            }
+        }
+    }
+
+    // batch [input file or -] [output file or -] [threads]
+    static void batch(String[] args, PrintStream stdout) throws IOException {
+        String inputPath = args.length > 1 ? args[1] : "-";
+        String outputPath = args.length > 2 ? args[2] : "-";
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        SpellChecker checker = new SpellChecker();
+        // Every line is corrected with the full dictionary, not just what is loaded so far
+        checker.ready().join();
+        checker.metrics().register("batch");
+        Reader input = inputPath.equals("-")
+                ? new InputStreamReader(System.in, StandardCharsets.UTF_8)
+                : new InputStreamReader(new FileInputStream(inputPath), StandardCharsets.UTF_8);
+        Writer output = outputPath.equals("-")
+                ? new OutputStreamWriter(stdout, StandardCharsets.UTF_8)
+                : new OutputStreamWriter(new FileOutputStream(outputPath), StandardCharsets.UTF_8);
+
+        long start = System.nanoTime();
+        long lines = new BatchCorrector(checker, threads).run(input, output);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.printf("Corrected %d lines in %.1f s (%.0f lines/s, %d threads)%n", lines, seconds, lines / seconds, threads);
+        System.err.println(checker.metrics().dump());
+    }
+}
@@ -0,0 +1,49 @@
+package com.chatbot.spellchecker;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JDK Flight Recorder events for single lookups and corrections, for finding out which inputs
+ * are slow; CorrectionMetrics only has the distributions.
+ *
+ * Off unless the JVM is started with -Dspellchecker.jfr=true, and then only recorded while a
+ * recording with the events enabled runs, e.g.
+ * java -Dspellchecker.jfr=true -XX:StartFlightRecording=filename=spellchecker.jfr ...
+ */
+final class CorrectionEvents {
+    static final boolean ENABLED = Boolean.getBoolean("spellchecker.jfr");
+
+    private CorrectionEvents() {
+    }
+
+    @Name("com.chatbot.spellchecker.Lookup")
+    @Label("Suggestion Lookup")
+    @Category("Spell Checker")
+    @Description("findSuggestions for one word")
+    static final class Lookup extends Event {
+        @Label("Word")
+        String word;
+
+        @Label("Suggestions")
+        int suggestions;
+    }
+
+    @Name("com.chatbot.spellchecker.Correction")
+    @Label("Text Correction")
+    @Category("Spell Checker")
+    @Description("correct() for one text")
+    static final class Correction extends Event {
+        @Label("Characters")
+        int length;
+
+        @Label("Tokens")
+        int tokens;
+
+        @Label("Edits")
+        int edits;
+    }
+}
@@ -0,0 +1,295 @@
+package com.chatbot.spellchecker;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Always-on counters and latency histograms of one SpellChecker: dictionary loading,
+ * findSuggestions and correct() latencies, candidates compared per lookup, suggestion cache and
+ * chat rule hit rates, and what correct() did with each token.
+ *
+ * Recording is a few uncontended atomic increments per call. correct() counts its tokens in a
+ * local array and adds them once per text, so the cost does not grow with the tokens. Cached
+ * lookups take about as long as reading the clock twice, so only a random one in
+ * LOOKUP_SAMPLING is timed; all of them are counted. Read it with dump() (the REPL "stats"
+ * command) or over JMX after register().
+ */
+final class CorrectionMetrics implements CorrectionMetricsMXBean {
+
+    // What correct() did with a token
+    enum Outcome {
+        SEMICOLON_FIXED,     // "i;m" -> "I'm"
+        RULE_REPLACED,       // chat shorthand replaced: "prts" -> "parts"
+        RULE_KEPT,           // kept as typed by a rule: "don't"
+        NUMBER_OR_SYMBOL,    // no letters
+        CODE_KEPT,           // part or contract code kept
+        CODE_CORRECTED,      // near miss corrected to a known code
+        SPLIT,               // run-together token split
+        PROPER_NAME,         // capitalized word inside a sentence
+        UNCHANGED,           // known word, or no suggestion
+        SPELLING_CORRECTED,  // replaced by the best suggestion
+        ERROR                // the lookup failed; kept as typed
+    }
+
+    private static final Outcome[] OUTCOMES = Outcome.values();
+    static final int OUTCOME_COUNT = OUTCOMES.length;
+
+    // Power of two
+    static final int LOOKUP_SAMPLING = 16;
+
+    private final SuggestionCache<?> cache;
+
+    private volatile String dictionarySource = "none";
+    private volatile int dictionaryWords;
+    private volatile long dictionaryLoadNanos;
+    private volatile SpellChecker.Readiness dictionaryReadiness = SpellChecker.Readiness.READY;
+    private final LongAdder dictionaryChanges = new LongAdder();
+
+    private final LongAdder lookups = new LongAdder();
+    private final Histogram lookupNanos = new Histogram();
+    private final Histogram correctionNanos = new Histogram();
+    private final Histogram candidates = new Histogram();
+    private final LongAdder[] tokens = new LongAdder[OUTCOMES.length];
+    private final LongAdder errors = new LongAdder();
+
+    // The cache counters cannot be reset, so reset() remembers where they were
+    private volatile long cacheHitsAtReset;
+    private volatile long cacheMissesAtReset;
+
+    CorrectionMetrics(SuggestionCache<?> cache) {
+        this.cache = cache;
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = new LongAdder();
+        }
+    }
+
+    // Registers this as an MXBean named com.chatbot.spellchecker:type=CorrectionMetrics,name=<name>
+    void register(String name) {
+        try {
+            ObjectName objectName = new ObjectName("com.chatbot.spellchecker:type=CorrectionMetrics,name=" + name);
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(objectName)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            }
+        } catch (JMException e) {
+            System.err.println("Metrics are not available over JMX: " + e.getMessage());
+        }
+    }
+
+    void dictionaryLoaded(String source, int words, long nanos) {
+        dictionarySource = source;
+        dictionaryWords = words;
+        dictionaryLoadNanos = nanos;
+        dictionaryChanges.reset();
+    }
+
+    void dictionaryReadiness(SpellChecker.Readiness readiness) {
+        dictionaryReadiness = readiness;
+    }
+
+    // A word added, removed or reweighted after the load
+    void dictionaryChanged() {
+        dictionaryChanges.increment();
+    }
+
+    void dictionaryResized(int words) {
+        dictionaryWords = words;
+    }
+
+    // Counts a findSuggestions call and tells whether to time it
+    boolean sampleLookup() {
+        lookups.increment();
+        return (ThreadLocalRandom.current().nextInt() & (LOOKUP_SAMPLING - 1)) == 0;
+    }
+
+    // A sampled lookup's latency
+    void lookup(long nanos) {
+        lookupNanos.record(nanos);
+    }
+
+    void candidatesCompared(int count) {
+        candidates.record(count);
+    }
+
+    // One correct() call; counts[o] is the number of tokens with outcome o
+    void correction(long nanos, int[] counts) {
+        correctionNanos.record(nanos);
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                tokens[i].add(counts[i]);
+            }
+        }
+    }
+
+    void error() {
+        errors.increment();
+    }
+
+    @Override
+    public String getDictionarySource() {
+        return dictionarySource;
+    }
+
+    @Override
+    public String getDictionaryReadiness() {
+        return dictionaryReadiness.name();
+    }
+
+    @Override
+    public int getDictionaryWords() {
+        return dictionaryWords;
+    }
+
+    @Override
+    public long getDictionaryLoadMillis() {
+        return dictionaryLoadNanos / 1_000_000;
+    }
+
+    @Override
+    public long getDictionaryChanges() {
+        return dictionaryChanges.sum();
+    }
+
+    @Override
+    public long getLookups() {
+        return lookups.sum();
+    }
+
+    @Override
+    public double getLookupMeanMicros() {
+        return lookupNanos.mean() / 1000;
+    }
+
+    @Override
+    public double getLookupP50Micros() {
+        return lookupNanos.percentile(50) / 1000.0;
+    }
+
+    @Override
+    public double getLookupP99Micros() {
+        return lookupNanos.percentile(99) / 1000.0;
+    }
+
+    @Override
+    public double getLookupP999Micros() {
+        return lookupNanos.percentile(99.9) / 1000.0;
+    }
+
+    @Override
+    public double getLookupMaxMicros() {
+        return lookupNanos.max() / 1000.0;
+    }
+
+    @Override
+    public long getCorrections() {
+        return correctionNanos.count();
+    }
+
+    @Override
+    public double getCorrectionMeanMicros() {
+        return correctionNanos.mean() / 1000;
+    }
+
+    @Override
+    public double getCorrectionP50Micros() {
+        return correctionNanos.percentile(50) / 1000.0;
+    }
+
+    @Override
+    public double getCorrectionP99Micros() {
+        return correctionNanos.percentile(99) / 1000.0;
+    }
+
+    @Override
+    public double getCorrectionP999Micros() {
+        return correctionNanos.percentile(99.9) / 1000.0;
+    }
+
+    @Override
+    public double getCorrectionMaxMicros() {
+        return correctionNanos.max() / 1000.0;
+    }
+
+    @Override
+    public double getCandidatesPerLookupMean() {
+        return candidates.mean();
+    }
+
+    @Override
+    public long getCandidatesPerLookupP99() {
+        return candidates.percentile(99);
+    }
+
+    // Of the lookups of words that are not in the dictionary
+    @Override
+    public double getCacheHitRate() {
+        long hits = cache.hits() - cacheHitsAtReset;
+        long requests = hits + cache.misses() - cacheMissesAtReset;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    // Of the tokens checked against the chat rules, which is all but the semicolon fixes
+    @Override
+    public double getRuleHitRate() {
+        long checked = 0;
+        for (Outcome outcome : OUTCOMES) {
+            if (outcome != Outcome.SEMICOLON_FIXED) {
+                checked += tokens[outcome.ordinal()].sum();
+            }
+        }
+        long hits = tokens[Outcome.RULE_REPLACED.ordinal()].sum() + tokens[Outcome.RULE_KEPT.ordinal()].sum();
+        return checked == 0 ? 0 : (double) hits / checked;
+    }
+
+    @Override
+    public Map<String, Long> getTokenCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Outcome outcome : OUTCOMES) {
+            counts.put(outcome.name(), tokens[outcome.ordinal()].sum());
+        }
+        return counts;
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public String dump() {
+        StringBuilder dump = new StringBuilder();
+        dump.append(String.format("dictionary:  %s, %d words, loaded in %d ms, %d changes since, %s%n",
+                dictionarySource, dictionaryWords, getDictionaryLoadMillis(), getDictionaryChanges(), dictionaryReadiness));
+        dump.append("lookups:     ").append(getLookups()).append(", 1 in ").append(LOOKUP_SAMPLING).append(" timed: ")
+                .append(lookupNanos.summary(1000)).append(" (us)").append(System.lineSeparator());
+        dump.append("corrections: ").append(correctionNanos.summary(1000)).append(" (us)").append(System.lineSeparator());
+        dump.append("candidates:  ").append(candidates.summary(1)).append(" (per uncached lookup)").append(System.lineSeparator());
+        dump.append(String.format("cache:       hit rate %.1f%% (%s)%n", 100 * getCacheHitRate(), cache));
+        dump.append(String.format("rules:       hit rate %.1f%%%n", 100 * getRuleHitRate()));
+        dump.append("tokens:     ");
+        for (Map.Entry<String, Long> count : getTokenCounts().entrySet()) {
+            dump.append(' ').append(count.getKey().toLowerCase()).append('=').append(count.getValue());
+        }
+        dump.append(System.lineSeparator());
+        dump.append("errors:      ").append(getErrors());
+        return dump.toString();
+    }
+
+    @Override
+    public void reset() {
+        lookups.reset();
+        lookupNanos.reset();
+        correctionNanos.reset();
+        candidates.reset();
+        for (LongAdder count : tokens) {
+            count.reset();
+        }
+        errors.reset();
+        cacheHitsAtReset = cache.hits();
+        cacheMissesAtReset = cache.misses();
+    }
+}
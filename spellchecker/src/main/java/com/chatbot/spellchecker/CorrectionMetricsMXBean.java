@@ -0,0 +1,64 @@
+package com.chatbot.spellchecker;
+
+import java.util.Map;
+
+/**
+ * JMX view of a SpellChecker's metrics, registered as
+ * com.chatbot.spellchecker:type=CorrectionMetrics,name=&lt;mode&gt; (see CorrectionMetrics).
+ * Latencies are in microseconds; lookup latencies are of a sample of the lookups.
+ */
+public interface CorrectionMetricsMXBean {
+
+    String getDictionarySource();
+
+    // LOADING, EXACT_ONLY or READY; see SpellChecker.Readiness
+    String getDictionaryReadiness();
+
+    int getDictionaryWords();
+
+    long getDictionaryLoadMillis();
+
+    long getDictionaryChanges();
+
+    long getLookups();
+
+    double getLookupMeanMicros();
+
+    double getLookupP50Micros();
+
+    double getLookupP99Micros();
+
+    double getLookupP999Micros();
+
+    double getLookupMaxMicros();
+
+    long getCorrections();
+
+    double getCorrectionMeanMicros();
+
+    double getCorrectionP50Micros();
+
+    double getCorrectionP99Micros();
+
+    double getCorrectionP999Micros();
+
+    double getCorrectionMaxMicros();
+
+    double getCandidatesPerLookupMean();
+
+    long getCandidatesPerLookupP99();
+
+    double getCacheHitRate();
+
+    double getRuleHitRate();
+
+    // Number of tokens by what correction did with them, e.g. SPELLING_CORRECTED -> 120
+    Map<String, Long> getTokenCounts();
+
+    long getErrors();
+
+    // The same report as the REPL "stats" command
+    String dump();
+
+    void reset();
+}
@@ -0,0 +1,82 @@
+package com.chatbot.spellchecker;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of correcting one text: the input, the corrected text and every token that was changed.
+ */
+public final class CorrectionResult {
+    public final String original;
+    public final String corrected;
+    public final List<Edit> edits;
+
+    CorrectionResult(String original, String corrected, List<Edit> edits) {
+        this.original = original;
+        this.corrected = corrected;
+        this.edits = Collections.unmodifiableList(edits);
+    }
+
+    // One changed token: what was typed and what replaced it
+    public static final class Edit {
+        public final String original;
+        public final String corrected;
+
+        Edit(String original, String corrected) {
+            this.original = original;
+            this.corrected = corrected;
+        }
+    }
+
+    // Single-line JSON: {"original":...,"corrected":...,"edits":[{"from":...,"to":...}]}
+    public String toJson() {
+        StringBuilder json = new StringBuilder(original.length() * 2 + 64);
+        json.append("{\"original\":");
+        appendString(json, original);
+        json.append(",\"corrected\":");
+        appendString(json, corrected);
+        json.append(",\"edits\":[");
+        for (int i = 0; i < edits.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"from\":");
+            appendString(json, edits.get(i).original);
+            json.append(",\"to\":");
+            appendString(json, edits.get(i).corrected);
+            json.append('}');
+        }
+        return json.append("]}").toString();
+    }
+
+    static void appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+}
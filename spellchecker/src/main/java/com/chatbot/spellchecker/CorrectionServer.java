@@ -0,0 +1,244 @@
+package com.chatbot.spellchecker;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Embedded HTTP front end for the chatbot, on the JDK's com.sun.net.httpserver.
+ *
+ *   GET  /word?q=teh        {"word":"teh","correct":false,"suggestions":[{"word":"the",...}]}
+ *   GET  /text?q=...        the CorrectionResult JSON
+ *   POST /word, POST /text  batch: one word or text per body line, answered with a JSON array
+ *   GET  /stats             latency percentiles and counters as plain text (CorrectionMetrics)
+ *   GET  /ready             {"readiness":"READY"}; 503 while the dictionary is still loading
+ *
+ * Every request runs on its own virtual thread when the JVM has them (Java 21+), otherwise on a
+ * bounded platform thread pool. All requests share the checker's current DictionaryIndex, which
+ * is immutable once built and only ever replaced as a whole, so lookups need no locking.
+ * Requests are answered while the dictionary loads, with exact lookups only until it is READY.
+ *
+ * Responses always carry a Content-Length and request bodies are read completely, so HTTP/1.1
+ * connections stay open for the next request. Bodies over MAX_BODY_BYTES, query strings over
+ * MAX_QUERY_CHARS and batches over MAX_BATCH_ITEMS are rejected with 413.
+ */
+final class CorrectionServer {
+    static final int MAX_BODY_BYTES = 256 * 1024;
+    static final int MAX_QUERY_CHARS = 4096;
+    static final int MAX_BATCH_ITEMS = 1000;
+    private static final int MAX_SUGGESTIONS = 5;
+
+    private final SpellChecker checker;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    CorrectionServer(SpellChecker checker, int port) throws IOException {
+        this.checker = checker;
+        this.server = HttpServer.create(new InetSocketAddress(port), 256);
+        this.executor = requestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/word", exchange -> handle(exchange, true));
+        server.createContext("/text", exchange -> handle(exchange, false));
+        server.createContext("/stats", this::stats);
+        server.createContext("/ready", this::ready);
+    }
+
+    void start() {
+        server.start();
+    }
+
+    int port() {
+        return server.getAddress().getPort();
+    }
+
+    void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    // Virtual thread per request where available; looked up reflectively to run on Java 17 too
+    static ExecutorService requestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(Math.max(8, Runtime.getRuntime().availableProcessors() * 4));
+        }
+    }
+
+    static boolean usesVirtualThreads() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private void stats(HttpExchange ex) throws IOException {
+        try {
+            byte[] body = (checker.metrics().dump() + "\n").getBytes(StandardCharsets.UTF_8);
+            ex.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+            ex.sendResponseHeaders(200, body.length);
+            try (OutputStream out = ex.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            ex.close();
+        }
+    }
+
+    // For load balancers: only READY instances should get traffic
+    private void ready(HttpExchange ex) throws IOException {
+        try {
+            SpellChecker.Readiness readiness = checker.readiness();
+            send(ex, readiness == SpellChecker.Readiness.READY ? 200 : 503, "{\"readiness\":\"" + readiness + "\"}");
+        } finally {
+            ex.close();
+        }
+    }
+
+    private void handle(HttpExchange ex, boolean wordEndpoint) throws IOException {
+        try {
+            String method = ex.getRequestMethod();
+            if (method.equals("GET")) {
+                String query = ex.getRequestURI().getRawQuery();
+                if (query != null && query.length() > MAX_QUERY_CHARS) {
+                    send(ex, 413, error("Query string too long"));
+                    return;
+                }
+                String q = parameter(ex.getRequestURI(), "q");
+                if (q == null || q.trim().isEmpty()) {
+                    send(ex, 400, error("Missing parameter q"));
+                    return;
+                }
+                send(ex, 200, wordEndpoint ? wordJson(q.trim()) : checker.correct(q.trim()).toJson());
+            } else if (method.equals("POST")) {
+                List<String> items = readLines(ex);
+                if (items == null) {
+                    send(ex, 413, error("Request body over " + MAX_BODY_BYTES + " bytes or " + MAX_BATCH_ITEMS + " lines"));
+                    return;
+                }
+                StringBuilder json = new StringBuilder("[");
+                for (int i = 0; i < items.size(); i++) {
+                    if (i > 0) {
+                        json.append(',');
+                    }
+                    json.append(wordEndpoint ? wordJson(items.get(i).trim()) : checker.correct(items.get(i)).toJson());
+                }
+                send(ex, 200, json.append(']').toString());
+            } else {
+                ex.getResponseHeaders().set("Allow", "GET, POST");
+                send(ex, 405, error("Use GET or POST"));
+            }
+        } catch (RuntimeException e) {
+            // Answer instead of dropping the connection, unless the response was already started
+            if (ex.getResponseCode() == -1) {
+                send(ex, 500, error("Internal error: " + e.getMessage()));
+            }
+        } finally {
+            ex.close();
+        }
+    }
+
+    private String wordJson(String word) {
+        List<Suggestion> suggestions = checker.findSuggestions(word, MAX_SUGGESTIONS, SpellChecker.MAX_EDIT_DISTANCE,
+                Suggestion.Verbosity.ALL);
+        StringBuilder json = new StringBuilder("{\"word\":");
+        CorrectionResult.appendString(json, word);
+        json.append(",\"correct\":").append(!suggestions.isEmpty() && suggestions.get(0).distance == 0);
+        json.append(",\"suggestions\":[");
+        for (int i = 0; i < suggestions.size(); i++) {
+            Suggestion suggestion = suggestions.get(i);
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"word\":");
+            CorrectionResult.appendString(json, suggestion.word);
+            json.append(",\"distance\":").append(suggestion.distance);
+            json.append(",\"frequency\":").append(suggestion.frequency).append('}');
+        }
+        return json.append("]}").toString();
+    }
+
+    // Non-empty body lines, or null if the body or the number of lines is over the limit
+    private static List<String> readLines(HttpExchange exchange) throws IOException {
+        String declared = exchange.getRequestHeaders().getFirst("Content-Length");
+        if (declared != null && Long.parseLong(declared.trim()) > MAX_BODY_BYTES) {
+            return null;
+        }
+
+        byte[] body = new byte[8192];
+        int length = 0;
+        try (InputStream in = exchange.getRequestBody()) {
+            int read;
+            while ((read = in.read(body, length, body.length - length)) > 0) {
+                length += read;
+                if (length > MAX_BODY_BYTES) {
+                    return null;
+                }
+                if (length == body.length) {
+                    body = Arrays.copyOf(body, Math.min(body.length * 2, MAX_BODY_BYTES + 1));
+                }
+            }
+        }
+
+        List<String> lines = new ArrayList<>();
+        for (String line : new String(body, 0, length, StandardCharsets.UTF_8).split("\r?\n")) {
+            if (!line.trim().isEmpty()) {
+                lines.add(line);
+            }
+        }
+        return lines.size() > MAX_BATCH_ITEMS ? null : lines;
+    }
+
+    private static String parameter(URI uri, String name) {
+        String query = uri.getRawQuery();
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0 && pair.substring(0, equals).equals(name)) {
+                return URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    private static String error(String message) {
+        StringBuilder json = new StringBuilder("{\"error\":");
+        CorrectionResult.appendString(json, message);
+        return json.append('}').toString();
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    // serve [port]
+    static void serve(String[] args) throws IOException {
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 8080;
+        SpellChecker checker = new SpellChecker();
+        checker.metrics().register("server");
+        CorrectionServer server = new CorrectionServer(checker, port);
+        server.start();
+        System.out.println("Listening on http://localhost:" + server.port() + "/ ("
+                + (usesVirtualThreads() ? "virtual threads" : "platform thread pool") + ")");
+        System.out.println("Try: curl 'http://localhost:" + server.port() + "/text?q=shwo+mee+prts'");
+    }
+}
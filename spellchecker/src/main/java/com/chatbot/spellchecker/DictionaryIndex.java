@@ -0,0 +1,55 @@
+package com.chatbot.spellchecker;
+
+import java.util.Set;
+
+/**
+ * Read side of a loaded dictionary: the words, their frequencies and the delete index used to
+ * find correction candidates. Words are addressed by dense ids from 0 to size() - 1.
+ *
+ * Implementations are SymSpellIndex, built in memory from a word/frequency map, and
+ * MappedDictionary, which serves a precompiled snapshot straight from a memory-mapped file.
+ * LiveDictionary.Snapshot layers words added and removed at runtime over one of those, and
+ * DictionaryOverlay layers one tenant's words over a dictionary shared by several checkers.
+ */
+interface DictionaryIndex {
+
+    int size();
+
+    // Id of the (lowercased) word, or -1 when it is not in the dictionary
+    int idOf(String word);
+
+    // Id of text[from, to) with A-Z lowercased, or -1; indexes that can compare in place
+    // override this so that no String is built
+    default int idOfLowerCase(CharSequence text, int from, int to) {
+        char[] word = new char[to - from];
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            word[i - from] = c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return idOf(new String(word));
+    }
+
+    String word(int id);
+
+    int frequency(int id);
+
+    // Whether the word was removed at runtime; its id stays taken until the next compaction
+    default boolean removed(int id) {
+        return false;
+    }
+
+    // Ids of all words that may be within the index's edit distance of the input, ascending
+    int[] candidates(String input);
+
+    // Ids of the words that share a delete made of exactly `deletes` deletions from the input,
+    // ascending; the words within d edits of the input all turn up for some deletes <= d
+    int[] candidates(String input, int deletes);
+
+    // Ids of the words registered under any of the given deletes of an input's prefix, ascending.
+    // Both methods above come down to this; a layer makes the input's deletes once and passes
+    // them on to the index below it.
+    int[] candidates(Set<String> inputDeletes);
+
+    // Edit distance between the input and a dictionary word, or maxDistance + 1 if it is larger
+    int distance(String input, int id, int maxDistance, boolean transpositions);
+}
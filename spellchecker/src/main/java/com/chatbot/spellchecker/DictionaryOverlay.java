@@ -0,0 +1,288 @@
+package com.chatbot.spellchecker;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * One tenant's layer over a dictionary shared by many: words it adds, base words it reweights
+ * and base words it suppresses. The base is only referenced, never copied, so a layer costs
+ * what its own words cost, whatever the size of the base.
+ *
+ * Ids below the base's size are the base's; added words follow, in the order the layer lists
+ * them, with their own small SymSpellIndex for deletes. Reweighted and suppressed base words
+ * are kept as sorted ids with their new frequencies. A suppressed word keeps its id, like a
+ * word removed from a LiveDictionary: idOf and candidates skip it and its frequency is 0.
+ * Candidates of the base and of the layer come out as one ascending array, so lookups rank
+ * both by the layered frequencies exactly as if they were one dictionary. The base may itself
+ * be a layer, so layers stack.
+ *
+ * Layers are immutable. A change builds a new layer over the same base.
+ */
+final class DictionaryOverlay implements DictionaryIndex {
+    // Frequency of a suppressed base word in the layer's words
+    static final int SUPPRESSED = Integer.MIN_VALUE;
+
+    private static final int[] NO_IDS = new int[0];
+
+    private final DictionaryIndex base;
+    private final int baseSize;
+    private final int baseWords;
+    private final long baseTotalFrequency;
+    private final int maxEditDistance;
+    private final int prefixLength;
+
+    // The layer as given: word -> frequency, or SUPPRESSED
+    private final Map<String, Integer> layer;
+
+    // Base words reweighted or suppressed, by ascending id, and a bit per id modulo the bits'
+    // length that rules most unchanged ids out before a binary search
+    private final int[] changedIds;
+    private final int[] changedFrequencies;
+    private final long[] changedBits;
+    private final int suppressed;
+
+    // Words the base does not have; id i here is baseSize + i in the layered dictionary
+    private final SymSpellIndex added;
+
+    private final long totalFrequency;
+
+    private DictionaryOverlay(DictionaryIndex base, int baseWords, long baseTotalFrequency, Map<String, Integer> layer,
+                              int maxEditDistance, int prefixLength) {
+        this.base = base;
+        this.baseSize = base.size();
+        this.baseWords = baseWords;
+        this.baseTotalFrequency = baseTotalFrequency;
+        this.maxEditDistance = maxEditDistance;
+        this.prefixLength = prefixLength;
+        this.layer = layer;
+
+        // Base changes as id << 32 | frequency, so that sorting orders them by id
+        long[] changes = new long[layer.size()];
+        int count = 0;
+        Map<String, Integer> addedWords = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> entry : layer.entrySet()) {
+            int id = base.idOf(entry.getKey());
+            if (id >= 0) {
+                changes[count++] = (long) id << 32 | (entry.getValue() & 0xffffffffL);
+            } else if (entry.getValue() != SUPPRESSED) {
+                addedWords.put(entry.getKey(), entry.getValue());
+            }
+        }
+        Arrays.sort(changes, 0, count);
+        changedIds = new int[count];
+        changedFrequencies = new int[count];
+        changedBits = new long[Integer.highestOneBit(Math.max(1, count / 4)) * 2];
+        long total = baseTotalFrequency;
+        int suppressedWords = 0;
+        for (int i = 0; i < count; i++) {
+            changedIds[i] = (int) (changes[i] >>> 32);
+            changedFrequencies[i] = (int) changes[i];
+            changedBits[(changedIds[i] >>> 6) & (changedBits.length - 1)] |= 1L << changedIds[i];
+            total -= base.frequency(changedIds[i]);
+            if (changedFrequencies[i] == SUPPRESSED) {
+                suppressedWords++;
+            } else {
+                total += changedFrequencies[i];
+            }
+        }
+        suppressed = suppressedWords;
+        added = new SymSpellIndex(addedWords, maxEditDistance, prefixLength);
+        for (int id = 0; id < added.size(); id++) {
+            total += added.frequency(id);
+        }
+        totalFrequency = total;
+    }
+
+    // A layer over the base; words are lowercased, frequencies positive or SUPPRESSED
+    static DictionaryOverlay over(DictionaryIndex base, Map<String, Integer> layer, int maxEditDistance, int prefixLength) {
+        // Reads every base frequency once, but keeps nothing per base word
+        int baseWords = 0;
+        long baseTotal = 0;
+        for (int id = 0; id < base.size(); id++) {
+            if (!base.removed(id)) {
+                baseWords++;
+                baseTotal += base.frequency(id);
+            }
+        }
+        return new DictionaryOverlay(base, baseWords, baseTotal, new LinkedHashMap<>(layer), maxEditDistance, prefixLength);
+    }
+
+    static DictionaryOverlay load(DictionaryIndex base, Path file, int maxEditDistance, int prefixLength) throws IOException {
+        return over(base, parse(Files.readAllLines(file, StandardCharsets.UTF_8), file.toString()),
+                maxEditDistance, prefixLength);
+    }
+
+    // "word frequency" adds the word or reweights it, "-word" suppresses it; throws
+    // IllegalArgumentException naming the source and line of the first malformed one
+    static Map<String, Integer> parse(List<String> lines, String source) {
+        Map<String, Integer> layer = new LinkedHashMap<>();
+        for (int number = 1; number <= lines.size(); number++) {
+            String line = lines.get(number - 1).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] tokens = line.split("\\s+");
+            if (tokens.length == 1 && tokens[0].length() > 1 && tokens[0].startsWith("-")) {
+                layer.put(tokens[0].substring(1).toLowerCase(), SUPPRESSED);
+                continue;
+            }
+            int frequency;
+            try {
+                frequency = tokens.length == 2 ? Integer.parseInt(tokens[1]) : 0;
+            } catch (NumberFormatException e) {
+                frequency = 0;
+            }
+            if (frequency < 1) {
+                throw new IllegalArgumentException(source + ":" + number + ": expected 'word frequency' or '-word'");
+            }
+            layer.put(tokens[0].toLowerCase(), frequency);
+        }
+        return layer;
+    }
+
+    // The same layer with the word at the frequency, or SUPPRESSED; a word the base does not
+    // have is dropped from the layer instead
+    DictionaryOverlay with(String word, int frequency) {
+        Map<String, Integer> changed = new LinkedHashMap<>(layer);
+        if (frequency == SUPPRESSED && base.idOf(word) < 0) {
+            changed.remove(word);
+        } else {
+            changed.put(word, frequency);
+        }
+        return new DictionaryOverlay(base, baseWords, baseTotalFrequency, changed, maxEditDistance, prefixLength);
+    }
+
+    // Words in the layered dictionary, without the suppressed ones
+    int words() {
+        return baseWords - suppressed + added.size();
+    }
+
+    int addedWords() {
+        return added.size();
+    }
+
+    int reweightedWords() {
+        return changedIds.length - suppressed;
+    }
+
+    int suppressedWords() {
+        return suppressed;
+    }
+
+    long totalFrequency() {
+        return totalFrequency;
+    }
+
+    @Override
+    public int size() {
+        return baseSize + added.size();
+    }
+
+    @Override
+    public int idOf(String word) {
+        int id = base.idOf(word);
+        if (id >= 0) {
+            return suppressed(id) ? -1 : id;
+        }
+        id = added.size() == 0 ? -1 : added.idOf(word);
+        return id < 0 ? -1 : baseSize + id;
+    }
+
+    @Override
+    public int idOfLowerCase(CharSequence text, int from, int to) {
+        int id = base.idOfLowerCase(text, from, to);
+        if (id >= 0) {
+            return suppressed(id) ? -1 : id;
+        }
+        id = added.size() == 0 ? -1 : added.idOfLowerCase(text, from, to);
+        return id < 0 ? -1 : baseSize + id;
+    }
+
+    @Override
+    public String word(int id) {
+        return id < baseSize ? base.word(id) : added.word(id - baseSize);
+    }
+
+    @Override
+    public int frequency(int id) {
+        if (id >= baseSize) {
+            return added.frequency(id - baseSize);
+        }
+        int changed = changed(id);
+        if (changed < 0) {
+            return base.frequency(id);
+        }
+        return changedFrequencies[changed] == SUPPRESSED ? 0 : changedFrequencies[changed];
+    }
+
+    @Override
+    public boolean removed(int id) {
+        return id < baseSize && (suppressed(id) || base.removed(id));
+    }
+
+    private boolean suppressed(int id) {
+        if (suppressed == 0) {
+            return false;
+        }
+        int changed = changed(id);
+        return changed >= 0 && changedFrequencies[changed] == SUPPRESSED;
+    }
+
+    // Index of a base id in changedIds, or negative
+    private int changed(int id) {
+        if ((changedBits[(id >>> 6) & (changedBits.length - 1)] & 1L << id) == 0) {
+            return -1;
+        }
+        return Arrays.binarySearch(changedIds, id);
+    }
+
+    @Override
+    public int[] candidates(String input) {
+        Set<String> inputDeletes = new HashSet<>();
+        SymSpellIndex.collectDeletes(SymSpellIndex.prefix(input, prefixLength), maxEditDistance, inputDeletes);
+        return candidates(inputDeletes);
+    }
+
+    @Override
+    public int[] candidates(String input, int deletes) {
+        return candidates(SymSpellIndex.exactDeletes(SymSpellIndex.prefix(input, prefixLength), deletes));
+    }
+
+    // The deletes are made once, for the base and the layer
+    @Override
+    public int[] candidates(Set<String> inputDeletes) {
+        return candidates(base.candidates(inputDeletes), added.size() == 0 ? NO_IDS : added.candidates(inputDeletes));
+    }
+
+    // The base's candidates without the suppressed words, then the added ones, which all have
+    // higher ids
+    private int[] candidates(int[] found, int[] addedFound) {
+        int count = found.length;
+        if (suppressed > 0) {
+            count = 0;
+            for (int id : found) {
+                if (!suppressed(id)) {
+                    found[count++] = id;
+                }
+            }
+        }
+        if (addedFound.length == 0) {
+            return count == found.length ? found : Arrays.copyOf(found, count);
+        }
+        int[] all = Arrays.copyOf(found, count + addedFound.length);
+        for (int i = 0; i < addedFound.length; i++) {
+            all[count + i] = baseSize + addedFound[i];
+        }
+        return all;
+    }
+
+    @Override
+    public int distance(String input, int id, int maxDistance, boolean transpositions) {
+        return id < baseSize
+                ? base.distance(input, id, maxDistance, transpositions)
+                : added.distance(input, id - baseSize, maxDistance, transpositions);
+    }
+}
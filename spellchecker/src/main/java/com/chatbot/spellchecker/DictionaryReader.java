@@ -0,0 +1,252 @@
+package com.chatbot.spellchecker;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Predicate;
+
+/**
+ * Parses a "word frequency" dictionary file on all cores.
+ *
+ * The file is cut at line breaks into chunks of a few MB, and each chunk is memory-mapped and
+ * parsed as a task on the common fork-join pool. ASCII lines are parsed straight from the bytes:
+ * the word ends at the first space, the frequency at the next one, and the frequency is read
+ * without building a String. Lines with other bytes are decoded strictly and split like before.
+ * Each chunk keeps its words in file order, and the chunks are merged in order with
+ * Integer::sum. The map therefore comes out exactly as the sequential Files.lines and
+ * split(" ") parser built it, down to its iteration order and so the word ids.
+ */
+final class DictionaryReader {
+    private static final long MIN_CHUNK_BYTES = 1 << 20;
+    private static final long MAX_CHUNK_BYTES = 32 << 20;
+
+    private DictionaryReader() {
+    }
+
+    // The keep filter is called from several threads at once
+    static Map<String, Integer> read(Path path, Predicate<String> keep) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long[] bounds = chunkBounds(channel);
+            Chunk[] chunks = new Chunk[bounds.length - 1];
+            try {
+                ForkJoinPool.commonPool().invoke(new ParseTask(channel, bounds, 0, chunks.length, keep, chunks));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            Map<String, Integer> dictionary = new HashMap<>();
+            for (Chunk chunk : chunks) {
+                for (int i = 0; i < chunk.size; i++) {
+                    dictionary.merge(chunk.words[i], chunk.frequencies[i], Integer::sum);
+                }
+            }
+            return dictionary;
+        }
+    }
+
+    // Chunk i is [bounds[i], bounds[i + 1]); every chunk but the last ends right after a line break
+    private static long[] chunkBounds(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long chunkBytes = Math.max(MIN_CHUNK_BYTES,
+                Math.min(MAX_CHUNK_BYTES, size / (4L * ForkJoinPool.commonPool().getParallelism())));
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        ByteBuffer scan = ByteBuffer.allocate(8192);
+        long start = 0;
+        while (start < size) {
+            long end = afterLineBreak(channel, Math.min(size, start + chunkBytes), size, scan);
+            bounds.add(end);
+            start = end;
+        }
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    // Position just past the first line break at or after position, or the end of the file
+    private static long afterLineBreak(FileChannel channel, long position, long size, ByteBuffer scan) throws IOException {
+        while (position < size) {
+            scan.clear();
+            int read = channel.read(scan, position);
+            if (read <= 0) {
+                return size;
+            }
+            for (int i = 0; i < read; i++) {
+                if (isLineBreak(scan.get(i))) {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    // "\r\n" ends a line and starts an empty one, which is skipped like any empty line
+    private static boolean isLineBreak(byte b) {
+        return b == '\n' || b == '\r';
+    }
+
+    // The words kept from one chunk, lowercased, with their frequencies, in file order
+    private static final class Chunk {
+        String[] words = new String[1024];
+        int[] frequencies = new int[1024];
+        int size;
+
+        void add(String word, int frequency) {
+            if (size == words.length) {
+                words = Arrays.copyOf(words, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            words[size] = word;
+            frequencies[size++] = frequency;
+        }
+    }
+
+    // Parses chunks [from, to), splitting the range in halves while it has more than one
+    private static final class ParseTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+        private final long[] bounds;
+        private final int from;
+        private final int to;
+        private final Predicate<String> keep;
+        private final Chunk[] chunks;
+
+        ParseTask(FileChannel channel, long[] bounds, int from, int to, Predicate<String> keep, Chunk[] chunks) {
+            this.channel = channel;
+            this.bounds = bounds;
+            this.from = from;
+            this.to = to;
+            this.keep = keep;
+            this.chunks = chunks;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ParseTask(channel, bounds, from, middle, keep, chunks),
+                        new ParseTask(channel, bounds, middle, to, keep, chunks));
+                return;
+            }
+            try {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, bounds[from], bounds[from + 1] - bounds[from]);
+                chunks[from] = parse(buffer, keep);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static Chunk parse(ByteBuffer buffer, Predicate<String> keep) throws IOException {
+        Chunk chunk = new Chunk();
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+        byte[] line = new byte[256];
+        int limit = buffer.limit();
+        int start = 0;
+        while (start < limit) {
+            // One line into the scratch array, noting the first two spaces and any non-ASCII byte
+            int end = start;
+            int firstSpace = -1;
+            int secondSpace = -1;
+            boolean ascii = true;
+            byte b;
+            while (end < limit && !isLineBreak(b = buffer.get(end))) {
+                if (b == ' ') {
+                    if (firstSpace < 0) {
+                        firstSpace = end - start;
+                    } else if (secondSpace < 0) {
+                        secondSpace = end - start;
+                    }
+                }
+                ascii &= b >= 0;
+                end++;
+            }
+            int length = end - start;
+            if (length > line.length) {
+                line = new byte[Math.max(length, line.length * 2)];
+            }
+            buffer.get(start, line, 0, length);
+            start = end + 1;
+
+            if (!ascii) {
+                // Rare; decoding fails on malformed UTF-8 the way Files.lines did
+                String text = decoder.decode(ByteBuffer.wrap(line, 0, length)).toString();
+                parseLine(text, keep, chunk);
+                continue;
+            }
+            // split(" ") drops trailing empty fields, so the line needs a second field that is not just spaces
+            if (firstSpace < 0 || onlySpaces(line, firstSpace + 1, length)) {
+                continue;
+            }
+            String word = new String(line, 0, firstSpace, StandardCharsets.ISO_8859_1).toLowerCase();
+            if (keep.test(word)) {
+                // Hashed here in parallel; the merge then finds the hash cached in the String
+                word.hashCode();
+                chunk.add(word, parseFrequency(line, firstSpace + 1, secondSpace < 0 ? length : secondSpace));
+            }
+        }
+        return chunk;
+    }
+
+    // A decoded line, split as before
+    private static void parseLine(String text, Predicate<String> keep, Chunk chunk) {
+        String[] tokens = text.split(" ");
+        if (tokens.length < 2) {
+            return;
+        }
+        String word = tokens[0].toLowerCase();
+        if (keep.test(word)) {
+            int frequency;
+            try {
+                frequency = Integer.parseInt(tokens[1]);
+            } catch (NumberFormatException e) {
+                frequency = 1;
+            }
+            chunk.add(word, frequency);
+        }
+    }
+
+    private static boolean onlySpaces(byte[] line, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (line[i] != ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Integer.parseInt of ASCII bytes, and 1 wherever it would throw
+    private static int parseFrequency(byte[] line, int from, int to) {
+        boolean negative = from < to && line[from] == '-';
+        int i = from < to && (line[from] == '-' || line[from] == '+') ? from + 1 : from;
+        if (i == to) {
+            return 1;
+        }
+        long limit = negative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE;
+        long value = 0;
+        for (; i < to; i++) {
+            int digit = line[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return 1;
+            }
+            value = value * 10 + digit;
+            if (value > limit) {
+                return 1;
+            }
+        }
+        return (int) (negative ? -value : value);
+    }
+}
@@ -0,0 +1,188 @@
+package com.chatbot.spellchecker;
+
+/**
+ * Bounded edit distance kernel.
+ *
+ * Both entry points take the largest distance the caller is interested in and stop as soon as
+ * the result must exceed it, returning maxDistance + 1 in that case. Words of up to 64 characters
+ * are compared with the Myers/Hyyro bit-parallel algorithm (one pass over the longer word, a few
+ * word operations per character); longer words fall back to a banded dynamic program. Scratch
+ * buffers are kept per thread, so a call does not allocate.
+ *
+ * With transpositions enabled the result is the optimal string alignment distance, where swapping
+ * two adjacent characters costs 1 ("teh" -> "the").
+ */
+final class EditDistance {
+    private static final int WORD_SIZE = 64;
+    private static final int TABLE_SIZE = 256;
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private EditDistance() {
+    }
+
+    // Levenshtein distance, or maxDistance + 1 if it is larger than maxDistance
+    static int levenshtein(CharSequence s1, CharSequence s2, int maxDistance) {
+        return distance(s1, s2, maxDistance, false);
+    }
+
+    // Optimal string alignment distance, or maxDistance + 1 if it is larger than maxDistance
+    static int optimalStringAlignment(CharSequence s1, CharSequence s2, int maxDistance) {
+        return distance(s1, s2, maxDistance, true);
+    }
+
+    static int distance(CharSequence s1, CharSequence s2, int maxDistance, boolean transpositions) {
+        // The pattern is the shorter word, so the bit vectors cover it whenever possible
+        CharSequence pattern = s1.length() <= s2.length() ? s1 : s2;
+        CharSequence text = pattern == s1 ? s2 : s1;
+        int m = pattern.length();
+        int n = text.length();
+
+        if (n - m > maxDistance) {
+            return maxDistance + 1;
+        }
+        if (m == 0) {
+            return n;
+        }
+
+        if (m <= WORD_SIZE) {
+            return bitParallel(pattern, text, maxDistance, transpositions);
+        }
+        return banded(pattern, text, maxDistance, transpositions);
+    }
+
+    private static int bitParallel(CharSequence pattern, CharSequence text, int maxDistance, boolean transpositions) {
+        int m = pattern.length();
+        int n = text.length();
+        long[] peq = SCRATCH.get().peq;
+
+        // Match masks for the pattern characters that fit the table; others are built on demand
+        for (int i = 0; i < m; i++) {
+            char c = pattern.charAt(i);
+            if (c < TABLE_SIZE) {
+                peq[c] |= 1L << i;
+            }
+        }
+
+        long last = 1L << (m - 1);
+        long vp = m == WORD_SIZE ? -1L : (1L << m) - 1;
+        long vn = 0;
+        long d0 = 0;
+        long previousEq = 0;
+        int score = m;
+
+        try {
+            for (int j = 0; j < n; j++) {
+                char c = text.charAt(j);
+                long eq = c < TABLE_SIZE ? peq[c] : matchMask(pattern, c);
+
+                long transposed = transpositions ? (((~d0) & eq) << 1) & previousEq : 0;
+                d0 = (((eq & vp) + vp) ^ vp) | eq | vn | transposed;
+                long hp = vn | ~(d0 | vp);
+                long hn = vp & d0;
+
+                if ((hp & last) != 0) {
+                    score++;
+                } else if ((hn & last) != 0) {
+                    score--;
+                }
+
+                // The remaining characters can lower the score by at most one each
+                if (score - (n - j - 1) > maxDistance) {
+                    return maxDistance + 1;
+                }
+
+                hp = (hp << 1) | 1;
+                hn = hn << 1;
+                vp = hn | ~(d0 | hp);
+                vn = hp & d0;
+                previousEq = eq;
+            }
+        } finally {
+            for (int i = 0; i < m; i++) {
+                char c = pattern.charAt(i);
+                if (c < TABLE_SIZE) {
+                    peq[c] = 0;
+                }
+            }
+        }
+
+        return score <= maxDistance ? score : maxDistance + 1;
+    }
+
+    private static long matchMask(CharSequence pattern, char c) {
+        long mask = 0;
+        for (int i = 0; i < pattern.length(); i++) {
+            if (pattern.charAt(i) == c) {
+                mask |= 1L << i;
+            }
+        }
+        return mask;
+    }
+
+    // Dynamic program restricted to the diagonal band |i - j| <= maxDistance, three rolling rows
+    private static int banded(CharSequence pattern, CharSequence text, int maxDistance, boolean transpositions) {
+        int m = pattern.length();
+        int n = text.length();
+        int outside = maxDistance + 1;
+
+        Scratch scratch = SCRATCH.get();
+        int[] previous2 = scratch.row(0, n + 1);
+        int[] previous = scratch.row(1, n + 1);
+        int[] current = scratch.row(2, n + 1);
+
+        for (int j = 0; j <= n; j++) {
+            previous[j] = Math.min(j, outside);
+        }
+
+        for (int i = 1; i <= m; i++) {
+            int from = Math.max(1, i - maxDistance);
+            int to = Math.min(n, i + maxDistance);
+            current[0] = Math.min(i, outside);
+            if (from > 1) {
+                current[from - 1] = outside;
+            }
+
+            int rowMinimum = current[0];
+            char pc = pattern.charAt(i - 1);
+            for (int j = from; j <= to; j++) {
+                char tc = text.charAt(j - 1);
+                int cost = pc == tc ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (transpositions && i > 1 && j > 1 && pc == text.charAt(j - 2) && pattern.charAt(i - 2) == tc) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = Math.min(value, outside);
+                rowMinimum = Math.min(rowMinimum, current[j]);
+            }
+            if (to < n) {
+                current[to + 1] = outside;
+            }
+
+            // Every path to the last cell goes through this row
+            if (rowMinimum > maxDistance) {
+                return outside;
+            }
+
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+
+        return Math.min(previous[n], outside);
+    }
+
+    // Per-thread buffers: match masks for the bit-parallel path and rows for the banded path
+    private static final class Scratch {
+        final long[] peq = new long[TABLE_SIZE];
+        final int[][] rows = new int[3][64];
+
+        int[] row(int index, int length) {
+            if (rows[index].length < length) {
+                rows[index] = new int[Math.max(length, rows[index].length * 2)];
+            }
+            return rows[index];
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.chatbot.spellchecker;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of non-negative values (latencies in nanoseconds, candidate counts) with the bucket
+ * layout of HdrHistogram: values below 64 get a bucket each, and every power of two above that
+ * is split into 32 buckets, so any percentile is reported within about 3% of the true value.
+ * Values from 2^41 (about 36 minutes in nanoseconds) up land in the last bucket.
+ *
+ * record() is one array increment, without locks or allocation. Threads count into one of
+ * several stripes of buckets so that parallel callers do not all contend on the same counter;
+ * readers add the stripes up.
+ */
+final class Histogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+    private static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+    private static final int STRIPES = Math.min(8, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1));
+
+    private final AtomicLongArray counts = new AtomicLongArray(STRIPES * BUCKETS);
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    void record(long value) {
+        value = Math.max(0, Math.min(value, MAX_VALUE));
+        int stripe = (int) (Thread.currentThread().getId() & (STRIPES - 1));
+        counts.incrementAndGet(stripe * BUCKETS + bucket(value));
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    // Adds up the buckets; for readers only
+    long count() {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    long max() {
+        return max.get();
+    }
+
+    double mean() {
+        long n = count();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    // Highest value in the bucket holding the given percentile (0-100), or 0 when empty
+    long percentile(double percentile) {
+        return percentiles(percentile)[0];
+    }
+
+    // Several percentiles from one pass over the buckets, in the order given
+    long[] percentiles(double... percentiles) {
+        long[] totals = new long[BUCKETS];
+        long total = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            for (int stripe = 0; stripe < STRIPES; stripe++) {
+                totals[bucket] += counts.get(stripe * BUCKETS + bucket);
+            }
+            total += totals[bucket];
+        }
+        long[] values = new long[percentiles.length];
+        for (int i = 0; i < percentiles.length; i++) {
+            long rank = Math.max(1, (long) Math.ceil(percentiles[i] / 100 * total));
+            long seen = 0;
+            for (int bucket = 0; bucket < BUCKETS && total > 0; bucket++) {
+                seen += totals[bucket];
+                if (seen >= rank) {
+                    values[i] = Math.min(highestValue(bucket), max());
+                    break;
+                }
+            }
+        }
+        return values;
+    }
+
+    // Counts recorded while a reset runs may be partly lost; fine for monitoring
+    void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        sum.reset();
+        max.reset();
+    }
+
+    // "count=1200 mean=8.1 p50=6 p90=14 p99=31 p99.9=95 max=210", values divided by the unit
+    String summary(double unit) {
+        long[] values = percentiles(50, 90, 99, 99.9);
+        return String.format("count=%d mean=%.1f p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f max=%.1f",
+                count(), mean() / unit, values[0] / unit, values[1] / unit, values[2] / unit,
+                values[3] / unit, max() / unit);
+    }
+
+    private static int bucket(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    private static long highestValue(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long subBucket = bucket % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,484 @@
+package com.chatbot.spellchecker;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Known part numbers and contract IDs from the master data, for text correction to protect.
+ *
+ * The codes are stored in a minimal acyclic automaton (a DAWG): codes that share a prefix share
+ * the states for it, and codes that share a suffix ("-2024", "125") share those states too, so
+ * millions of codes in a handful of formats take a few bytes each. Each code ends with a marker
+ * edge for its kind, which keeps kinds apart without breaking up shared suffixes. A Bloom filter
+ * in front answers most lookups of unknown codes with a single cache miss.
+ *
+ * Codes are compared case-insensitively. nearest() walks the automaton along all strings within
+ * one edit (substitution, insertion, deletion or swap of adjacent characters) of the input.
+ *
+ * Master data file: one code per line, optionally followed by its kind ("part" or
+ * "contract", default part); '#' starts a comment line.
+ */
+final class IdentifierRecognizer {
+
+    enum Kind {
+        PART, CONTRACT
+    }
+
+    // Marker edges after the last character of a code; they sort before every code character
+    private static final char PART_MARKER = '\u0001';
+    private static final char CONTRACT_MARKER = '\u0002';
+
+    // Edge layout: label in the top 16 bits, then the last-edge flag, then the target state
+    private static final int LABEL_SHIFT = 48;
+    private static final long LAST_EDGE = 1L << 47;
+    private static final long TARGET_MASK = 0xFFFFFFFFL;
+    private static final int NONE = -1;
+
+    // Bloom filter blocks of one 64-byte cache line; each code sets 7 bits in one block
+    private static final int BLOOM_BITS_PER_CODE = 10;
+    private static final int BLOOM_BLOCK_LONGS = 8;
+    private static final int BLOOM_HASHES = 7;
+
+    // Characters that are easily typed or read for one another in codes, in pairs
+    private static final String LOOK_ALIKES = "S5O0I1L1Z2B8G6";
+
+    private final int size;
+    private final int states;
+
+    // A state is the index of its first edge; its edges follow up to the one flagged last,
+    // sorted by label. The start state is 0. Marker edges lead to the state without edges,
+    // which is never entered, so their target is 0 as well.
+    private final long[] edges;
+
+    private final long[] bloom;
+    private final int bloomBlocks;
+
+    private IdentifierRecognizer(List<String> keys) {
+        size = keys.size();
+        Builder builder = new Builder();
+        for (String key : keys) {
+            builder.add(key);
+        }
+        List<State> order = builder.finish();
+        states = order.size();
+
+        int edgeCount = 0;
+        for (State state : order) {
+            state.offset = edgeCount;
+            edgeCount += state.count;
+        }
+        edges = new long[edgeCount];
+        int edge = 0;
+        for (State state : order) {
+            for (int i = 0; i < state.count; i++) {
+                State target = state.targets[i];
+                edges[edge++] = ((long) state.labels[i] << LABEL_SHIFT)
+                        | (i == state.count - 1 ? LAST_EDGE : 0)
+                        | (target.count == 0 ? 0 : target.offset);
+            }
+        }
+
+        bloomBlocks = Math.max(1, size * BLOOM_BITS_PER_CODE / (BLOOM_BLOCK_LONGS * 64));
+        bloom = new long[bloomBlocks * BLOOM_BLOCK_LONGS];
+        for (String key : keys) {
+            long hash = hash(key, 0, key.length() - 1);
+            int block = bloomBlock(hash);
+            long bits = mix(hash);
+            for (int i = 0; i < BLOOM_HASHES; i++, bits >>>= 9) {
+                int bit = (int) bits & 511;
+                bloom[block + (bit >>> 6)] |= 1L << bit;
+            }
+        }
+    }
+
+    static IdentifierRecognizer of(Map<String, Kind> codes) {
+        List<String> keys = new ArrayList<>(codes.size());
+        for (Map.Entry<String, Kind> code : codes.entrySet()) {
+            keys.add(key(code.getKey(), code.getValue()));
+        }
+        return new IdentifierRecognizer(sortedUnique(keys));
+    }
+
+    static IdentifierRecognizer load(Path file) throws IOException {
+        List<String> keys = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int number = 0;
+            while ((line = reader.readLine()) != null) {
+                number++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                int space = 0;
+                while (space < line.length() && !Character.isWhitespace(line.charAt(space))) {
+                    space++;
+                }
+                String kindName = line.substring(space).trim();
+                Kind kind;
+                if (kindName.isEmpty() || kindName.equalsIgnoreCase("part")) {
+                    kind = Kind.PART;
+                } else if (kindName.equalsIgnoreCase("contract")) {
+                    kind = Kind.CONTRACT;
+                } else {
+                    throw new IOException(file + ":" + number + ": unknown kind '" + kindName + "'");
+                }
+                keys.add(key(line.substring(0, space), kind));
+            }
+        }
+        return new IdentifierRecognizer(sortedUnique(keys));
+    }
+
+    // The uppercased code followed by its kind marker
+    private static String key(String code, Kind kind) {
+        char[] key = new char[code.length() + 1];
+        for (int i = 0; i < code.length(); i++) {
+            key[i] = upper(code.charAt(i));
+        }
+        key[code.length()] = kind == Kind.PART ? PART_MARKER : CONTRACT_MARKER;
+        return new String(key);
+    }
+
+    private static List<String> sortedUnique(List<String> keys) {
+        String[] sorted = keys.toArray(new String[0]);
+        Arrays.sort(sorted);
+        List<String> unique = new ArrayList<>(sorted.length);
+        for (String key : sorted) {
+            if (unique.isEmpty() || !unique.get(unique.size() - 1).equals(key)) {
+                unique.add(key);
+            }
+        }
+        return unique;
+    }
+
+    // Number of codes
+    int size() {
+        return size;
+    }
+
+    int stateCount() {
+        return states;
+    }
+
+    long sizeInBytes() {
+        return edges.length * 8L + bloom.length * 8L;
+    }
+
+    // Kind of text[from, to) if it is a known code, otherwise null
+    Kind kindOf(CharSequence text, int from, int to) {
+        long hash = hash(text, from, to);
+        int block = bloomBlock(hash);
+        long bits = mix(hash);
+        for (int i = 0; i < BLOOM_HASHES; i++, bits >>>= 9) {
+            int bit = (int) bits & 511;
+            if ((bloom[block + (bit >>> 6)] & (1L << bit)) == 0) {
+                return null;
+            }
+        }
+        int state = 0;
+        for (int i = from; i < to && state != NONE; i++) {
+            state = child(state, upper(text.charAt(i)));
+        }
+        return state == NONE ? null : kindAt(state);
+    }
+
+    Kind kindOf(CharSequence code) {
+        return kindOf(code, 0, code.length());
+    }
+
+    // Known codes one edit away from text[from, to): codes differing only by look-alike
+    // characters ("AE12S" -> "AE125") first, then the others, each in alphabetical order
+    List<String> nearest(CharSequence text, int from, int to) {
+        char[] input = upper(text, from, to);
+        Set<String> lookAlike = new TreeSet<>();
+        Set<String> other = new TreeSet<>();
+        if (edges.length > 0) {
+            nearest(0, input, 0, false, new StringBuilder(), lookAlike, other);
+        }
+        other.removeAll(lookAlike);
+        List<String> result = new ArrayList<>(lookAlike);
+        result.addAll(other);
+        return result;
+    }
+
+    List<String> nearest(CharSequence code) {
+        return nearest(code, 0, code.length());
+    }
+
+    // The single best near miss of text[from, to), or null if there is none or it is ambiguous.
+    // Codes typed in lowercase are corrected in lowercase.
+    String correction(CharSequence text, int from, int to) {
+        List<String> nearest = nearest(text, from, to);
+        char[] input = upper(text, from, to);
+        String code = null;
+        if (nearest.size() == 1) {
+            code = nearest.get(0);
+        } else if (nearest.size() > 1 && isLookAlike(nearest.get(0), input) && !isLookAlike(nearest.get(1), input)) {
+            code = nearest.get(0);
+        }
+        if (code == null) {
+            return null;
+        }
+        for (int i = from; i < to; i++) {
+            if (Character.isUpperCase(text.charAt(i))) {
+                return code;
+            }
+        }
+        return code.toLowerCase();
+    }
+
+    // Depth-first walk that spends at most one edit; matched holds the code read so far
+    private void nearest(int state, char[] input, int position, boolean edited, StringBuilder matched,
+                         Set<String> lookAlike, Set<String> other) {
+        if (position == input.length && edited && kindAt(state) != null) {
+            String code = matched.toString();
+            (isLookAlike(code, input) ? lookAlike : other).add(code);
+        }
+        int length = matched.length();
+        if (position < input.length) {
+            int next = child(state, input[position]);
+            if (next != NONE) {
+                nearest(next, input, position + 1, edited, matched.append(input[position]), lookAlike, other);
+                matched.setLength(length);
+            }
+        }
+        if (edited) {
+            return;
+        }
+
+        for (int e = state; ; e++) {
+            long edge = edges[e];
+            char c = (char) (edge >>> LABEL_SHIFT);
+            if (c > CONTRACT_MARKER) {
+                int next = (int) (edge & TARGET_MASK);
+                // The code has a character the input lacks
+                nearest(next, input, position, true, matched.append(c), lookAlike, other);
+                matched.setLength(length);
+                // The code has a different character here
+                if (position < input.length && c != input[position]) {
+                    nearest(next, input, position + 1, true, matched.append(c), lookAlike, other);
+                    matched.setLength(length);
+                }
+            }
+            if ((edge & LAST_EDGE) != 0) {
+                break;
+            }
+        }
+        if (position < input.length) {
+            // The input has an extra character
+            nearest(state, input, position + 1, true, matched, lookAlike, other);
+            // Two adjacent characters are swapped
+            if (position + 1 < input.length && input[position] != input[position + 1]) {
+                int first = child(state, input[position + 1]);
+                int second = first == NONE ? NONE : child(first, input[position]);
+                if (second != NONE) {
+                    matched.append(input[position + 1]).append(input[position]);
+                    nearest(second, input, position + 2, true, matched, lookAlike, other);
+                    matched.setLength(length);
+                }
+            }
+        }
+    }
+
+    // Target of the edge labeled c, or NONE
+    private int child(int state, char c) {
+        if (c <= CONTRACT_MARKER) {
+            return NONE;
+        }
+        for (int e = state; ; e++) {
+            long edge = edges[e];
+            char label = (char) (edge >>> LABEL_SHIFT);
+            if (label == c) {
+                return (int) (edge & TARGET_MASK);
+            }
+            if (label > c || (edge & LAST_EDGE) != 0) {
+                return NONE;
+            }
+        }
+    }
+
+    // Kind of the code that ends in this state, or null; the marker edges come first
+    private Kind kindAt(int state) {
+        char c = (char) (edges[state] >>> LABEL_SHIFT);
+        return c == PART_MARKER ? Kind.PART : c == CONTRACT_MARKER ? Kind.CONTRACT : null;
+    }
+
+    // Same length, and every differing character is a look-alike of the other
+    private static boolean isLookAlike(String code, char[] input) {
+        if (code.length() != input.length) {
+            return false;
+        }
+        for (int i = 0; i < input.length; i++) {
+            if (code.charAt(i) != input[i] && !lookAlikes(code.charAt(i), input[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean lookAlikes(char a, char b) {
+        for (int i = 0; i < LOOK_ALIKES.length(); i += 2) {
+            char x = LOOK_ALIKES.charAt(i);
+            char y = LOOK_ALIKES.charAt(i + 1);
+            if ((a == x && b == y) || (a == y && b == x)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static char[] upper(CharSequence text, int from, int to) {
+        char[] upper = new char[to - from];
+        for (int i = 0; i < upper.length; i++) {
+            upper[i] = upper(text.charAt(from + i));
+        }
+        return upper;
+    }
+
+    private static char upper(char c) {
+        return Character.toUpperCase(c);
+    }
+
+    // FNV-1a over the uppercased characters
+    private static long hash(CharSequence text, int from, int to) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = from; i < to; i++) {
+            hash ^= upper(text.charAt(i));
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // First long of the block for this hash
+    private int bloomBlock(long hash) {
+        return (int) (((hash >>> 32) * bloomBlocks) >>> 32) * BLOOM_BLOCK_LONGS;
+    }
+
+    // Independent bits for the positions within the block, 9 bits per position
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        return hash ^ (hash >>> 33);
+    }
+
+    // Incremental construction of a minimal automaton from sorted keys (Daciuk et al., 2000):
+    // once a key is added, the states only the previous key used can no longer change, so they
+    // are merged with an equal registered state right away and the unminimized trie never exists
+    private static final class Builder {
+        private final State root = new State(0);
+        private final Map<State, State> register = new HashMap<>();
+        private String previous = "";
+        private int serial = 1;
+
+        void add(String key) {
+            int common = 0;
+            State state = root;
+            while (common < key.length() && common < previous.length()
+                    && key.charAt(common) == previous.charAt(common)) {
+                state = state.last();
+                common++;
+            }
+            if (state.count > 0) {
+                replaceOrRegister(state);
+            }
+            for (int i = common; i < key.length(); i++) {
+                State next = new State(serial++);
+                state.add(key.charAt(i), next);
+                state = next;
+            }
+            previous = key;
+        }
+
+        // The states with edges in depth-first order from the start state, so that the states a
+        // lookup walks through mostly lie next to each other in the edge array
+        List<State> finish() {
+            if (root.count > 0) {
+                replaceOrRegister(root);
+            }
+            List<State> order = new ArrayList<>();
+            Deque<State> stack = new ArrayDeque<>();
+            stack.push(root);
+            while (!stack.isEmpty()) {
+                State state = stack.pop();
+                if (state.offset != NONE || (state.count == 0 && state != root)) {
+                    continue;
+                }
+                state.offset = 0;
+                order.add(state);
+                for (int e = state.count - 1; e >= 0; e--) {
+                    stack.push(state.targets[e]);
+                }
+            }
+            return order;
+        }
+
+        private void replaceOrRegister(State state) {
+            State child = state.last();
+            if (child.count > 0) {
+                replaceOrRegister(child);
+            }
+            State existing = register.putIfAbsent(child, child);
+            if (existing != null) {
+                state.targets[state.count - 1] = existing;
+            }
+        }
+    }
+
+    // Builder state; equal when the edges are, which is exact because targets are already unique
+    private static final class State {
+        final int serial;
+        char[] labels = new char[1];
+        State[] targets = new State[1];
+        int count;
+        int offset = NONE;
+
+        State(int serial) {
+            this.serial = serial;
+        }
+
+        void add(char c, State next) {
+            if (count == labels.length) {
+                labels = Arrays.copyOf(labels, count * 2);
+                targets = Arrays.copyOf(targets, count * 2);
+            }
+            labels[count] = c;
+            targets[count] = next;
+            count++;
+        }
+
+        State last() {
+            return targets[count - 1];
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof State)) {
+                return false;
+            }
+            State other = (State) o;
+            if (count != other.count) {
+                return false;
+            }
+            for (int i = 0; i < count; i++) {
+                if (labels[i] != other.labels[i] || targets[i] != other.targets[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = count;
+            for (int i = 0; i < count; i++) {
+                hash = hash * 31 + labels[i];
+                hash = hash * 31 + targets[i].serial;
+            }
+            return hash;
+        }
+    }
+}
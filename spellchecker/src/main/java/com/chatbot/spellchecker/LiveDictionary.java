@@ -0,0 +1,452 @@
+package com.chatbot.spellchecker;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Adds, removes and reweights single dictionary words while lookups keep running.
+ *
+ * Every change publishes a new Snapshot: the index the dictionary was loaded into (the base),
+ * plus a delta of the words added since. Added words get the next ids and are registered in the
+ * delta's own delete table, so a change costs the deletes of one word instead of a rebuild.
+ * Removed words stay as tombstones. Frequencies are kept in chunks of 1,024, and a reweight or a
+ * removal copies the one chunk it changes, so it costs about 4 KB instead of a copy of every
+ * frequency. Otherwise snapshots share their arrays: a change only writes ids and table slots
+ * that the published snapshots ignore before it publishes the next snapshot. So a published
+ * snapshot never changes. Readers never lock and keep the snapshot they started with; writers
+ * are serialized.
+ *
+ * Once the changes since the last compaction reach compactionThreshold(), a daemon thread
+ * builds a new base SymSpellIndex from the current snapshot, without holding up writers, and
+ * publishes it with the changes made during the build replayed on top. Ids are kept in order,
+ * so compaction does not change any lookup result.
+ */
+final class LiveDictionary {
+    // Frequency of a removed word
+    private static final int REMOVED = Integer.MIN_VALUE;
+
+    // Frequencies per chunk, by id
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_MASK = (1 << CHUNK_BITS) - 1;
+
+    // Changes between compactions: at least this many, or a sixteenth of the dictionary
+    private static final int MIN_COMPACTION_THRESHOLD = 1000;
+
+    private final int maxEditDistance;
+    private final int prefixLength;
+    private final Consumer<Snapshot> onPublish;
+
+    // Guarded by this
+    private Snapshot current;
+    private final List<Change> changes = new ArrayList<>();
+    private boolean compacting;
+    private boolean closed;
+    private int compactions;
+
+    LiveDictionary(DictionaryIndex base, int maxEditDistance, int prefixLength, Consumer<Snapshot> onPublish) {
+        this.maxEditDistance = maxEditDistance;
+        this.prefixLength = prefixLength;
+        this.onPublish = onPublish;
+        this.current = baseSnapshot(base);
+    }
+
+    // Adds the word, or sets its frequency if it is already there
+    synchronized void put(String word, int frequency) {
+        change(word, frequency);
+    }
+
+    // Sets the frequency of a known word; false if it is not in the dictionary
+    synchronized boolean reweight(String word, int frequency) {
+        if (current.idOf(word) < 0) {
+            return false;
+        }
+        change(word, frequency);
+        return true;
+    }
+
+    // False if the word is not in the dictionary
+    synchronized boolean remove(String word) {
+        if (current.idOf(word) < 0) {
+            return false;
+        }
+        change(word, REMOVED);
+        return true;
+    }
+
+    synchronized Snapshot snapshot() {
+        return current;
+    }
+
+    synchronized int compactions() {
+        return compactions;
+    }
+
+    synchronized int compactionThreshold() {
+        return Math.max(MIN_COMPACTION_THRESHOLD, current.baseSize / 16);
+    }
+
+    // Stops publishing; changes and compactions still running are dropped
+    synchronized void close() {
+        closed = true;
+    }
+
+    // Folds the delta and the removed words into a new base index now, unless a compaction is
+    // already running
+    void compact() {
+        synchronized (this) {
+            if (closed || compacting) {
+                return;
+            }
+            compacting = true;
+        }
+        fold();
+    }
+
+    // Called with compacting set
+    private void fold() {
+        Snapshot from;
+        int replayFrom;
+        synchronized (this) {
+            from = current;
+            replayFrom = changes.size();
+        }
+        try {
+            // Writers publish new snapshots while this runs, leaving from as it is; their changes
+            // are in the log after replayFrom and are replayed onto the new base below
+            Map<String, Integer> words = new LinkedHashMap<>(from.size * 2);
+            for (int id = 0; id < from.size; id++) {
+                int frequency = from.stored(id);
+                if (frequency != REMOVED) {
+                    words.put(from.word(id), frequency);
+                }
+            }
+            SymSpellIndex base = new SymSpellIndex(words, maxEditDistance, prefixLength);
+
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                List<Change> later = new ArrayList<>(changes.subList(replayFrom, changes.size()));
+                Snapshot next = baseSnapshot(base);
+                for (Change change : later) {
+                    next = apply(next, change.word, change.frequency);
+                }
+                changes.clear();
+                changes.addAll(later);
+                compactions++;
+                publish(next);
+            }
+        } finally {
+            synchronized (this) {
+                compacting = false;
+            }
+        }
+    }
+
+    private void change(String word, int frequency) {
+        if (closed) {
+            return;
+        }
+        changes.add(new Change(word, frequency));
+        publish(apply(current, word, frequency));
+        if (!compacting && changes.size() >= compactionThreshold()) {
+            compacting = true;
+            Thread thread = new Thread(this::fold, "dictionary-compaction");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    private void publish(Snapshot snapshot) {
+        current = snapshot;
+        onPublish.accept(snapshot);
+    }
+
+    private Snapshot baseSnapshot(DictionaryIndex base) {
+        int[][] frequencies = new int[(base.size() >>> CHUNK_BITS) + 1][CHUNK_MASK + 1];
+        long total = 0;
+        for (int id = 0; id < base.size(); id++) {
+            frequencies[id >>> CHUNK_BITS][id & CHUNK_MASK] = base.frequency(id);
+            total += base.frequency(id);
+        }
+        return new Snapshot(base, base.size(), base.size(), frequencies, new String[16], new Postings[16], 0,
+                new ConcurrentHashMap<>(), 0, total, maxEditDistance, prefixLength);
+    }
+
+    // The snapshot with the word at the given frequency, or REMOVED. May write into s's arrays,
+    // but only where readers of s cannot tell: ids from s.size up
+    private Snapshot apply(Snapshot s, String word, int frequency) {
+        int id = s.base.idOf(word);
+        if (id < 0) {
+            Integer deltaId = s.deltaIds.get(word);
+            id = deltaId == null ? -1 : deltaId;
+        }
+
+        if (id >= 0) {
+            int old = s.stored(id);
+            if (old == frequency) {
+                return s;
+            }
+            int[][] frequencies = s.frequencies.clone();
+            int[] chunk = frequencies[id >>> CHUNK_BITS].clone();
+            chunk[id & CHUNK_MASK] = frequency;
+            frequencies[id >>> CHUNK_BITS] = chunk;
+            int removed = s.removed + (frequency == REMOVED ? 1 : 0) - (old == REMOVED ? 1 : 0);
+            long total = s.totalFrequency - (old == REMOVED ? 0 : old) + (frequency == REMOVED ? 0 : frequency);
+            return new Snapshot(s.base, s.baseSize, s.size, frequencies, s.deltaWords, s.deletes, s.deleteSlots,
+                    s.deltaIds, removed, total, maxEditDistance, prefixLength);
+        }
+        if (frequency == REMOVED) {
+            return s;
+        }
+
+        // A new word: the next id, and its deletes in the delta table
+        id = s.size;
+        int[][] frequencies = s.frequencies;
+        if (id >>> CHUNK_BITS == frequencies.length) {
+            frequencies = Arrays.copyOf(frequencies, frequencies.length + 1);
+            frequencies[frequencies.length - 1] = new int[CHUNK_MASK + 1];
+        }
+        frequencies[id >>> CHUNK_BITS][id & CHUNK_MASK] = frequency;
+        String[] deltaWords = s.deltaWords;
+        if (id - s.baseSize == deltaWords.length) {
+            deltaWords = Arrays.copyOf(deltaWords, deltaWords.length * 2);
+        }
+        deltaWords[id - s.baseSize] = word;
+
+        Set<String> deletes = new HashSet<>();
+        SymSpellIndex.collectDeletes(SymSpellIndex.prefix(word, prefixLength), maxEditDistance, deletes);
+        Postings[] table = s.deletes;
+        int used = s.deleteSlots;
+        if ((used + deletes.size()) * 2 > table.length) {
+            table = rehash(table, used + deletes.size());
+        }
+        for (String delete : deletes) {
+            long key = SymSpellIndex.hash(delete);
+            int slot = Snapshot.findSlot(table, key);
+            if (table[slot] == null) {
+                table[slot] = new Postings(key, new int[] {id});
+                used++;
+            } else {
+                int[] ids = Arrays.copyOf(table[slot].ids, table[slot].ids.length + 1);
+                ids[ids.length - 1] = id;
+                table[slot] = new Postings(key, ids);
+            }
+        }
+        s.deltaIds.put(word, id);
+
+        return new Snapshot(s.base, s.baseSize, id + 1, frequencies, deltaWords, table, used, s.deltaIds,
+                s.removed, s.totalFrequency + frequency, maxEditDistance, prefixLength);
+    }
+
+    // A copy with room for the given number of keys at half load
+    private static Postings[] rehash(Postings[] table, int keys) {
+        int capacity = table.length;
+        while (keys * 2 > capacity) {
+            capacity *= 2;
+        }
+        Postings[] copy = new Postings[capacity];
+        for (Postings postings : table) {
+            if (postings != null) {
+                copy[Snapshot.findSlot(copy, postings.key)] = postings;
+            }
+        }
+        return copy;
+    }
+
+    private static final class Change {
+        final String word;
+        final int frequency;
+
+        Change(String word, int frequency) {
+            this.word = word;
+            this.frequency = frequency;
+        }
+    }
+
+    // Delta words under one delete hash; replaced as a whole, never changed
+    private static final class Postings {
+        final long key;
+        final int[] ids;
+
+        Postings(long key, int[] ids) {
+            this.key = key;
+            this.ids = ids;
+        }
+    }
+
+    /**
+     * The dictionary after some change. Ids below baseSize are the base index's, the others
+     * are added words in the order they were added. Removed words keep their id, but idOf and
+     * candidates skip them and their frequency is 0.
+     */
+    static final class Snapshot implements DictionaryIndex {
+        private final DictionaryIndex base;
+        private final int baseSize;
+        private final int size;
+        private final int[][] frequencies;
+        private final String[] deltaWords;
+        private final Postings[] deletes;
+        private final int deleteSlots;
+        private final Map<String, Integer> deltaIds;
+        private final int removed;
+        private final long totalFrequency;
+        private final int maxEditDistance;
+        private final int prefixLength;
+
+        private Snapshot(DictionaryIndex base, int baseSize, int size, int[][] frequencies, String[] deltaWords,
+                         Postings[] deletes, int deleteSlots, Map<String, Integer> deltaIds, int removed,
+                         long totalFrequency, int maxEditDistance, int prefixLength) {
+            this.base = base;
+            this.baseSize = baseSize;
+            this.size = size;
+            this.frequencies = frequencies;
+            this.deltaWords = deltaWords;
+            this.deletes = deletes;
+            this.deleteSlots = deleteSlots;
+            this.deltaIds = deltaIds;
+            this.removed = removed;
+            this.totalFrequency = totalFrequency;
+            this.maxEditDistance = maxEditDistance;
+            this.prefixLength = prefixLength;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        // Words in the dictionary, without the removed ones
+        int words() {
+            return size - removed;
+        }
+
+        int addedWords() {
+            return size - baseSize;
+        }
+
+        int removedWords() {
+            return removed;
+        }
+
+        long totalFrequency() {
+            return totalFrequency;
+        }
+
+        @Override
+        public int idOf(String word) {
+            int id = base.idOf(word);
+            if (id < 0) {
+                Integer deltaId = deltaIds.get(word);
+                id = deltaId == null || deltaId >= size ? -1 : deltaId;
+            }
+            return id >= 0 && stored(id) != REMOVED ? id : -1;
+        }
+
+        @Override
+        public int idOfLowerCase(CharSequence text, int from, int to) {
+            int id = base.idOfLowerCase(text, from, to);
+            if (id < 0 && !deltaIds.isEmpty()) {
+                return DictionaryIndex.super.idOfLowerCase(text, from, to);
+            }
+            return id >= 0 && stored(id) != REMOVED ? id : -1;
+        }
+
+        @Override
+        public String word(int id) {
+            return id < baseSize ? base.word(id) : deltaWords[id - baseSize];
+        }
+
+        @Override
+        public int frequency(int id) {
+            int frequency = stored(id);
+            return frequency == REMOVED ? 0 : frequency;
+        }
+
+        @Override
+        public boolean removed(int id) {
+            return stored(id) == REMOVED;
+        }
+
+        // The frequency, or REMOVED
+        private int stored(int id) {
+            return frequencies[id >>> CHUNK_BITS][id & CHUNK_MASK];
+        }
+
+        @Override
+        public int[] candidates(String input) {
+            Set<String> inputDeletes = new HashSet<>();
+            SymSpellIndex.collectDeletes(SymSpellIndex.prefix(input, prefixLength), maxEditDistance, inputDeletes);
+            return candidates(inputDeletes);
+        }
+
+        @Override
+        public int[] candidates(String input, int deletes) {
+            return candidates(SymSpellIndex.exactDeletes(SymSpellIndex.prefix(input, prefixLength), deletes));
+        }
+
+        @Override
+        public int[] candidates(Set<String> inputDeletes) {
+            return candidates(base.candidates(inputDeletes), inputDeletes);
+        }
+
+        // The base's candidates without the removed words, then the added words under the input's deletes
+        private int[] candidates(int[] found, Set<String> inputDeletes) {
+            int count = found.length;
+            if (removed > 0) {
+                count = 0;
+                for (int id : found) {
+                    if (stored(id) != REMOVED) {
+                        found[count++] = id;
+                    }
+                }
+            }
+            if (size == baseSize) {
+                return count == found.length ? found : Arrays.copyOf(found, count);
+            }
+
+            // Added words all have higher ids than the base ones, so they go after them
+            int baseCount = count;
+            for (String delete : inputDeletes) {
+                Postings postings = deletes[findSlot(deletes, SymSpellIndex.hash(delete))];
+                if (postings == null) {
+                    continue;
+                }
+                for (int id : postings.ids) {
+                    if (id < size && stored(id) != REMOVED) {
+                        if (count == found.length) {
+                            found = Arrays.copyOf(found, Math.max(16, count * 2));
+                        }
+                        found[count++] = id;
+                    }
+                }
+            }
+            Arrays.sort(found, baseCount, count);
+            int unique = baseCount;
+            for (int i = baseCount; i < count; i++) {
+                if (unique == baseCount || found[unique - 1] != found[i]) {
+                    found[unique++] = found[i];
+                }
+            }
+            return unique == found.length ? found : Arrays.copyOf(found, unique);
+        }
+
+        @Override
+        public int distance(String input, int id, int maxDistance, boolean transpositions) {
+            return id < baseSize
+                    ? base.distance(input, id, maxDistance, transpositions)
+                    : EditDistance.distance(input, deltaWords[id - baseSize], maxDistance, transpositions);
+        }
+
+        // Slot of the key, or the empty slot where it would go
+        private static int findSlot(Postings[] table, long key) {
+            int mask = table.length - 1;
+            int slot = SymSpellIndex.homeSlot(key, mask);
+            while (table[slot] != null && table[slot].key != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+    }
+}
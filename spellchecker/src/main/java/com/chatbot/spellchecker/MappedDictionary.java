@@ -0,0 +1,351 @@
+package com.chatbot.spellchecker;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Precompiled dictionary snapshot, served straight from a memory-mapped file.
+ *
+ * The snapshot holds the words sorted by their UTF-8 bytes, their frequencies and the
+ * symmetric-delete index, so opening it costs one mmap instead of parsing the text file and
+ * rebuilding the index. Lookups read the mapped buffer directly: exact matches are a binary
+ * search over the string pool, candidate verification runs the edit distance on a per-thread
+ * view of the pooled bytes, and a String is only created for words that are returned.
+ *
+ * Layout (big-endian):
+ *   header      magic, version, source size, source modification time,
+ *               max edit distance, prefix length, word count, table capacity, posting length
+ *   offsets     int[wordCount + 1]  start of each word in the pool, plus the end of the pool
+ *   frequencies int[wordCount]
+ *   keys        long[capacity]      delete hash per slot
+ *   heads       int[capacity]       start of the slot's posting list, -1 for an empty slot
+ *   postings    int[postingLength]  per list: the id count, then the ids in ascending order
+ *   pool        byte[]              UTF-8 bytes of all words
+ *
+ * Words with equal distance and frequency are ranked in alphabetical order, where the text
+ * loader ranks them in hash map order.
+ */
+final class MappedDictionary implements DictionaryIndex {
+    private static final int MAGIC = 0x53504458; // "SPDX"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 48;
+    private static final int EMPTY = -1;
+
+    private static final ThreadLocal<PoolView> VIEWS = ThreadLocal.withInitial(PoolView::new);
+
+    private final ByteBuffer buffer;
+    private final int maxEditDistance;
+    private final int prefixLength;
+    private final int wordCount;
+    private final int capacity;
+    private final int offsetsStart;
+    private final int frequenciesStart;
+    private final int keysStart;
+    private final int headsStart;
+    private final int postingsStart;
+    private final int poolStart;
+
+    private MappedDictionary(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a dictionary snapshot");
+        }
+        maxEditDistance = buffer.getInt(24);
+        prefixLength = buffer.getInt(28);
+        wordCount = buffer.getInt(32);
+        capacity = buffer.getInt(36);
+        int postingLength = buffer.getInt(40);
+
+        offsetsStart = HEADER_SIZE;
+        frequenciesStart = offsetsStart + (wordCount + 1) * 4;
+        keysStart = frequenciesStart + wordCount * 4;
+        headsStart = keysStart + capacity * 8;
+        postingsStart = headsStart + capacity * 4;
+        poolStart = postingsStart + postingLength * 4;
+    }
+
+    static MappedDictionary open(String snapshotPath) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(snapshotPath), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new MappedDictionary(buffer);
+        }
+    }
+
+    /**
+     * True if the snapshot exists, was built with the same index parameters and, when the text
+     * dictionary is present, was compiled from its current version (same size and timestamp).
+     */
+    static boolean isCurrent(String snapshotPath, String dictionaryPath, int maxEditDistance, int prefixLength) {
+        File snapshot = new File(snapshotPath);
+        if (!snapshot.isFile()) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(snapshot)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return false;
+            }
+            long sourceSize = in.readLong();
+            long sourceModified = in.readLong();
+            if (in.readInt() != maxEditDistance || in.readInt() != prefixLength) {
+                return false;
+            }
+            File source = new File(dictionaryPath);
+            return !source.exists() || (source.length() == sourceSize && source.lastModified() == sourceModified);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // Parse the text dictionary, build the index and write it as a snapshot
+    static void compile(String dictionaryPath, String snapshotPath, int maxEditDistance, int prefixLength) throws IOException {
+        File source = new File(dictionaryPath);
+        Map<String, Integer> dictionary = SpellChecker.readDictionary(dictionaryPath, word -> true);
+
+        // Ids follow the byte order of the pool so that exact lookups can binary search
+        List<byte[]> encoded = new ArrayList<>(dictionary.size());
+        for (String word : dictionary.keySet()) {
+            encoded.add(word.getBytes(StandardCharsets.UTF_8));
+        }
+        encoded.sort(Arrays::compareUnsigned);
+        Map<String, Integer> sorted = new LinkedHashMap<>(dictionary.size() * 2);
+        for (byte[] word : encoded) {
+            String text = new String(word, StandardCharsets.UTF_8);
+            sorted.put(text, dictionary.get(text));
+        }
+        SymSpellIndex index = new SymSpellIndex(sorted, maxEditDistance, prefixLength);
+
+        // Repack the delete table at a lower load and with contiguous posting lists
+        int capacity = Integer.highestOneBit(Math.max(2, index.deleteCount() * 5 / 3)) << 1;
+        long[] keys = new long[capacity];
+        int[] heads = new int[capacity];
+        Arrays.fill(heads, EMPTY);
+        int[][] postings = {new int[1024]};
+        int[] postingLength = {0};
+        index.forEachDelete((hash, ids, count) -> {
+            int slot = SymSpellIndex.homeSlot(hash, capacity - 1);
+            while (heads[slot] != EMPTY) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            keys[slot] = hash;
+            heads[slot] = postingLength[0];
+
+            if (postingLength[0] + count + 1 > postings[0].length) {
+                postings[0] = Arrays.copyOf(postings[0], Math.max(postings[0].length * 2, postingLength[0] + count + 1));
+            }
+            postings[0][postingLength[0]++] = count;
+            for (int i = count - 1; i >= 0; i--) {
+                postings[0][postingLength[0]++] = ids[i];
+            }
+        });
+
+        Path target = Paths.get(snapshotPath).toAbsolutePath();
+        Path temporary = Files.createTempFile(target.getParent(), "dictionary", ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(source.length());
+            out.writeLong(source.lastModified());
+            out.writeInt(maxEditDistance);
+            out.writeInt(prefixLength);
+            out.writeInt(index.size());
+            out.writeInt(capacity);
+            out.writeInt(postingLength[0]);
+            out.writeInt(0); // Padding to HEADER_SIZE
+
+            int offset = 0;
+            for (byte[] word : encoded) {
+                out.writeInt(offset);
+                offset += word.length;
+            }
+            out.writeInt(offset);
+            for (int id = 0; id < index.size(); id++) {
+                out.writeInt(index.frequency(id));
+            }
+            for (long key : keys) {
+                out.writeLong(key);
+            }
+            for (int head : heads) {
+                out.writeInt(head);
+            }
+            for (int i = 0; i < postingLength[0]; i++) {
+                out.writeInt(postings[0][i]);
+            }
+            for (byte[] word : encoded) {
+                out.write(word);
+            }
+        }
+        // Readers either see the old snapshot or the complete new one
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    int maxEditDistance() {
+        return maxEditDistance;
+    }
+
+    @Override
+    public int size() {
+        return wordCount;
+    }
+
+    @Override
+    public int idOf(String word) {
+        byte[] key = word.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = wordCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compareWord(middle, key);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    // Unsigned byte comparison of a pooled word with the key
+    private int compareWord(int id, byte[] key) {
+        int start = poolStart + wordStart(id);
+        int length = wordStart(id + 1) - wordStart(id);
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int difference = (buffer.get(start + i) & 0xff) - (key[i] & 0xff);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return length - key.length;
+    }
+
+    private int wordStart(int id) {
+        return buffer.getInt(offsetsStart + id * 4);
+    }
+
+    @Override
+    public String word(int id) {
+        int start = wordStart(id);
+        byte[] bytes = new byte[wordStart(id + 1) - start];
+        buffer.get(poolStart + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int frequency(int id) {
+        return buffer.getInt(frequenciesStart + id * 4);
+    }
+
+    @Override
+    public int[] candidates(String input) {
+        Set<String> deletes = new HashSet<>();
+        SymSpellIndex.collectDeletes(SymSpellIndex.prefix(input, prefixLength), maxEditDistance, deletes);
+        return candidates(deletes);
+    }
+
+    @Override
+    public int[] candidates(String input, int deletes) {
+        return candidates(SymSpellIndex.exactDeletes(SymSpellIndex.prefix(input, prefixLength), deletes));
+    }
+
+    @Override
+    public int[] candidates(Set<String> deletes) {
+        int mask = capacity - 1;
+        int[] found = new int[16];
+        int count = 0;
+        for (String delete : deletes) {
+            long hash = SymSpellIndex.hash(delete);
+            int slot = SymSpellIndex.homeSlot(hash, mask);
+            int head;
+            while ((head = buffer.getInt(headsStart + slot * 4)) != EMPTY && buffer.getLong(keysStart + slot * 8) != hash) {
+                slot = (slot + 1) & mask;
+            }
+            if (head == EMPTY) {
+                continue;
+            }
+
+            int position = postingsStart + head * 4;
+            int length = buffer.getInt(position);
+            if (count + length > found.length) {
+                found = Arrays.copyOf(found, Math.max(found.length * 2, count + length));
+            }
+            for (int i = 1; i <= length; i++) {
+                found[count++] = buffer.getInt(position + i * 4);
+            }
+        }
+
+        Arrays.sort(found, 0, count);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || found[unique - 1] != found[i]) {
+                found[unique++] = found[i];
+            }
+        }
+        return Arrays.copyOf(found, unique);
+    }
+
+    @Override
+    public int distance(String input, int id, int maxDistance, boolean transpositions) {
+        PoolView view = VIEWS.get();
+        int start = poolStart + wordStart(id);
+        int end = poolStart + wordStart(id + 1);
+        if (!view.point(buffer, start, end)) {
+            // Non-ASCII words are rare; decode those instead of reading UTF-8 in the view
+            return EditDistance.distance(input, word(id), maxDistance, transpositions);
+        }
+        return EditDistance.distance(input, view, maxDistance, transpositions);
+    }
+
+    // Reusable CharSequence over an ASCII word in the pool
+    private static final class PoolView implements CharSequence {
+        private ByteBuffer buffer;
+        private int start;
+        private int length;
+
+        boolean point(ByteBuffer buffer, int start, int end) {
+            for (int i = start; i < end; i++) {
+                if (buffer.get(i) < 0) {
+                    return false;
+                }
+            }
+            this.buffer = buffer;
+            this.start = start;
+            this.length = end - start;
+            return true;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) buffer.get(start + index);
+        }
+
+        // A new view, so that it keeps its range when this one is pointed elsewhere
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            Objects.checkFromToIndex(from, to, length);
+            PoolView view = new PoolView();
+            view.buffer = buffer;
+            view.start = start + from;
+            view.length = to - from;
+            return view;
+        }
+
+        @Override
+        public String toString() {
+            byte[] bytes = new byte[length];
+            buffer.get(start, bytes);
+            return new String(bytes, StandardCharsets.US_ASCII);
+        }
+    }
+}
@@ -0,0 +1,552 @@
+package com.chatbot.spellchecker;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Word bigram and trigram counts from a text corpus, for ranking suggestions by the words
+ * before them ("failed pat" -> "failed part"). Built offline with build() and served straight
+ * from a memory-mapped file.
+ *
+ * Words get ids from 2 up, most frequent first; 1 is the start of a sentence and 0 an unknown
+ * word. An n-gram is the three ids packed 21 bits each into one long, u << 42 | v << 21 | w,
+ * where a bigram has u = 0, so the key 0 never occurs and marks an empty slot. The counts are an
+ * open-addressing table of those keys with Robin Hood linear probing, sized for a load of 3/4
+ * without rounding up to a power of two. Most candidates a lookup asks about were never seen
+ * after the context, and Robin Hood order lets those lookups stop after 3.4 slots on average
+ * instead of running to the end of the cluster (8.5 slots at this load). A slot holds the key
+ * and its count side by side, so a lookup usually touches one cache line: 16 bytes per n-gram,
+ * and no objects at all, so 20 million n-grams take 320 MB of page cache and nothing on the
+ * heap.
+ *
+ * Scores are stupid backoff (Brants et al. 2007): the trigram's relative frequency if it was
+ * seen, else 0.4 times the bigram's, else 0.16 times the word's.
+ *
+ * Layout (big-endian):
+ *   header      magic, version, vocabulary size, vocabulary capacity, n-gram capacity,
+ *               n-gram count, total word count, pool length, min count
+ *   slots       per n-gram slot: long packed n-gram (0 for an empty slot), int count
+ *   offsets     int[vocabulary size + 1]  start of each word in the pool, plus the end of the pool
+ *   unigrams    int[vocabulary size]  count of each word; for id 1, of the sentences
+ *   words       int[vocabulary capacity]  word hash table of ids, 0 for an empty slot
+ *   pool        byte[]  the ASCII words
+ */
+final class NGramModel {
+    private static final int MAGIC = 0x53504e47; // "SPNG"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 40;
+
+    static final int UNKNOWN = 0;
+    static final int SENTENCE_START = 1;
+    static final String SENTENCE_START_WORD = "<s>";
+
+    private static final int ID_BITS = 21;
+    private static final int MAX_ID = (1 << ID_BITS) - 1;
+
+    private static final int SLOT_SIZE = 12;
+
+    // Keeps the table under 2 GB, the most one mapped buffer can hold: about 130 million n-grams
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE / SLOT_SIZE;
+
+    private static final double BACKOFF = 0.4;
+    private static final double LOG_BACKOFF = Math.log(BACKOFF);
+
+    private final ByteBuffer table;
+    private final ByteBuffer vocabulary;
+    private final int vocabularySize;
+    private final int vocabularyMask;
+    private final int capacity;
+    private final int ngramCount;
+    private final long totalCount;
+    private final int unigramsStart;
+    private final int slotsStart;
+    private final int poolStart;
+    private final long sizeInBytes;
+
+    private NGramModel(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+            // Until the header is read or the file ends
+        }
+        if (header.hasRemaining() || header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+            throw new IOException("Not an n-gram model");
+        }
+        vocabularySize = header.getInt(8);
+        int vocabularyCapacity = header.getInt(12);
+        capacity = header.getInt(16);
+        ngramCount = header.getInt(20);
+        totalCount = header.getLong(24);
+        int poolLength = header.getInt(32);
+
+        long vocabularyStart = HEADER_SIZE + (long) capacity * SLOT_SIZE;
+        unigramsStart = (vocabularySize + 1) * 4;
+        slotsStart = unigramsStart + vocabularySize * 4;
+        poolStart = slotsStart + vocabularyCapacity * 4;
+        sizeInBytes = vocabularyStart + poolStart + poolLength;
+        if (channel.size() < sizeInBytes) {
+            throw new IOException("Truncated n-gram model");
+        }
+        table = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, (long) capacity * SLOT_SIZE);
+        vocabulary = channel.map(FileChannel.MapMode.READ_ONLY, vocabularyStart, poolStart + poolLength);
+        vocabularyMask = vocabularyCapacity - 1;
+    }
+
+    static NGramModel open(String modelPath) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(modelPath), StandardOpenOption.READ)) {
+            return new NGramModel(channel);
+        }
+    }
+
+    // Ids, including the sentence start; id 0 is unused
+    int vocabularySize() {
+        return vocabularySize;
+    }
+
+    int ngramCount() {
+        return ngramCount;
+    }
+
+    long sizeInBytes() {
+        return sizeInBytes;
+    }
+
+    // Id of a lowercase word, SENTENCE_START for SENTENCE_START_WORD, or UNKNOWN (also for null)
+    int idOf(String word) {
+        if (word == null) {
+            return UNKNOWN;
+        }
+        int slot = slot(word);
+        int id;
+        while ((id = vocabulary.getInt(slotsStart + slot * 4)) != UNKNOWN) {
+            if (wordEquals(id, word)) {
+                return id;
+            }
+            slot = (slot + 1) & vocabularyMask;
+        }
+        return UNKNOWN;
+    }
+
+    private int slot(String word) {
+        long hash = SymSpellIndex.hash(word);
+        return (int) (hash ^ (hash >>> 32)) & vocabularyMask;
+    }
+
+    private boolean wordEquals(int id, String word) {
+        int start = vocabulary.getInt(id * 4);
+        int length = vocabulary.getInt(id * 4 + 4) - start;
+        if (length != word.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (vocabulary.get(poolStart + start + i) != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    String word(int id) {
+        int start = vocabulary.getInt(id * 4);
+        byte[] bytes = new byte[vocabulary.getInt(id * 4 + 4) - start];
+        vocabulary.get(poolStart + start, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    // How often the word occurs, or for SENTENCE_START, how many sentences start with a known word
+    int unigram(int id) {
+        return id == UNKNOWN ? 0 : vocabulary.getInt(unigramsStart + id * 4);
+    }
+
+    // How often w followed v, and u v if u is known; 0 if any id is UNKNOWN
+    int count(int u, int v, int w) {
+        if (v == UNKNOWN || w == UNKNOWN) {
+            return 0;
+        }
+        long key = key(u, v, w);
+        int slot = homeSlot(key, capacity);
+        long found;
+        for (int distance = 0; (found = table.getLong(slot * SLOT_SIZE)) != 0; distance++) {
+            if (found == key) {
+                return table.getInt(slot * SLOT_SIZE + 8);
+            }
+            // Past the keys that could have been displaced this far
+            if (distance(found, slot, capacity) < distance) {
+                return 0;
+            }
+            if (++slot == capacity) {
+                slot = 0;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Natural log of the stupid backoff score of w after u v, from the longest n-gram that was
+     * seen. Without u, scores start from the bigram; an unknown w scores like a word seen half a
+     * time.
+     */
+    double logScore(int u, int v, int w) {
+        double score = logScoreAfter(u, v, w);
+        if (score != Double.NEGATIVE_INFINITY) {
+            return score;
+        }
+        double penalty = v == UNKNOWN ? 0 : u == UNKNOWN ? LOG_BACKOFF : 2 * LOG_BACKOFF;
+        double unigram = w == UNKNOWN ? 0.5 : Math.max(0.5, unigram(w));
+        return penalty + Math.log(unigram / Math.max(1, totalCount));
+    }
+
+    // logScore(u, v, w) if w was seen after v, else negative infinity; at most one table lookup
+    // when it was not. A trigram can only have been kept if its bigram was.
+    double logScoreAfter(int u, int v, int w) {
+        int bigram = count(UNKNOWN, v, w);
+        if (bigram == 0) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        if (u != UNKNOWN) {
+            int trigram = count(u, v, w);
+            if (trigram > 0) {
+                return Math.log((double) trigram / Math.max(trigram, count(UNKNOWN, u, v)));
+            }
+            return LOG_BACKOFF + Math.log((double) bigram / Math.max(bigram, unigram(v)));
+        }
+        return Math.log((double) bigram / Math.max(bigram, unigram(v)));
+    }
+
+    static long key(int u, int v, int w) {
+        return (long) u << (2 * ID_BITS) | (long) v << ID_BITS | w;
+    }
+
+    // How far the key in the slot is from its home slot
+    private static int distance(long key, int slot, int capacity) {
+        int home = homeSlot(key, capacity);
+        return slot >= home ? slot - home : slot + capacity - home;
+    }
+
+    // Maps the mixed key onto [0, capacity) with a multiply instead of a power-of-two mask
+    private static int homeSlot(long key, int capacity) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) (((key >>> 32) * capacity) >>> 32);
+    }
+
+    /**
+     * The two words before the current token of a text being corrected, as typed or corrected.
+     * Ids are only looked up when a suggestion is ranked, so tracking costs two assignments per
+     * token. Not thread-safe; correct() creates one per call.
+     */
+    static final class Context {
+        private String beforePrevious;
+        private String previous;
+
+        // The next word starts a sentence
+        void startSentence() {
+            beforePrevious = null;
+            previous = SENTENCE_START_WORD;
+        }
+
+        // The next word follows something that is not a word: a number, a code, a split token
+        void reset() {
+            beforePrevious = null;
+            previous = null;
+        }
+
+        // A lowercase word, as it ends up in the corrected text
+        void push(String word) {
+            beforePrevious = previous;
+            previous = word;
+        }
+
+        String previous() {
+            return previous;
+        }
+
+        String beforePrevious() {
+            return beforePrevious;
+        }
+    }
+
+    /**
+     * Counts the words, bigrams and trigrams of a text corpus and writes them as a model.
+     *
+     * Words are the ASCII letters of whitespace-separated tokens, lowercased, like the words
+     * correct() looks up; tokens without letters or with digits break the context. Sentences
+     * start at each line and after tokens ending in '.', '!' or '?'. Words and n-grams seen fewer
+     * than minCount times are left out; a left-out word also breaks the context. The corpus is
+     * read twice, once for the words and once for the n-grams, which are counted in a primitive
+     * hash table on the heap.
+     */
+    static void build(String corpusPath, String modelPath, int minCount) throws IOException {
+        // Pass 1: the vocabulary, most frequent words first
+        Map<String, int[]> wordCounts = new HashMap<>();
+        scan(corpusPath, new Sink() {
+            @Override
+            public void word(String word) {
+                int[] count = wordCounts.computeIfAbsent(word, w -> new int[1]);
+                count[0] = saturatedIncrement(count[0]);
+            }
+
+            @Override
+            public void boundary(boolean sentenceStart) {
+            }
+        });
+        List<String> words = new ArrayList<>();
+        for (Map.Entry<String, int[]> entry : wordCounts.entrySet()) {
+            if (entry.getValue()[0] >= minCount) {
+                words.add(entry.getKey());
+            }
+        }
+        words.sort(Comparator.comparingInt((String word) -> -wordCounts.get(word)[0]).thenComparing(word -> word));
+        if (words.size() > MAX_ID - 1) {
+            words = words.subList(0, MAX_ID - 1);
+        }
+        int vocabularySize = words.size() + 2;
+        Map<String, Integer> ids = new HashMap<>(vocabularySize * 2);
+        int[] unigrams = new int[vocabularySize];
+        long totalCount = 0;
+        for (int i = 0; i < words.size(); i++) {
+            ids.put(words.get(i), i + 2);
+            unigrams[i + 2] = wordCounts.get(words.get(i))[0];
+            totalCount += unigrams[i + 2];
+        }
+        wordCounts.clear();
+
+        // Pass 2: bigrams and trigrams of known words
+        CountTable ngrams = new CountTable();
+        scan(corpusPath, new Sink() {
+            private int u;
+            private int v;
+
+            @Override
+            public void word(String word) {
+                Integer id = ids.get(word);
+                if (id == null) {
+                    boundary(false);
+                    return;
+                }
+                if (v != UNKNOWN) {
+                    ngrams.increment(key(UNKNOWN, v, id));
+                    if (u != UNKNOWN) {
+                        ngrams.increment(key(u, v, id));
+                    }
+                    if (v == SENTENCE_START) {
+                        unigrams[SENTENCE_START] = saturatedIncrement(unigrams[SENTENCE_START]);
+                    }
+                }
+                u = v;
+                v = id;
+            }
+
+            @Override
+            public void boundary(boolean sentenceStart) {
+                u = UNKNOWN;
+                v = sentenceStart ? SENTENCE_START : UNKNOWN;
+            }
+        });
+        write(modelPath, minCount, words, unigrams, totalCount, ngrams);
+    }
+
+    private static void write(String modelPath, int minCount, List<String> words, int[] unigrams, long totalCount,
+                              CountTable ngrams) throws IOException {
+        int ngramCount = ngrams.count(minCount);
+        if (ngramCount > MAX_CAPACITY / 4 * 3) {
+            throw new IOException(ngramCount + " n-grams are too many for one model; raise the minimum count");
+        }
+        int capacity = (int) ((long) ngramCount * 4 / 3) + 1;
+
+        // The vocabulary: offsets, unigram counts, hash slots and pool
+        int vocabularySize = unigrams.length;
+        int vocabularyCapacity = Integer.highestOneBit(Math.max(2, vocabularySize * 2 - 1)) << 1;
+        ByteArrayOutputStream pool = new ByteArrayOutputStream();
+        int[] offsets = new int[vocabularySize + 1];
+        int[] slots = new int[vocabularyCapacity];
+        for (int id = 1; id < vocabularySize; id++) {
+            String word = id == SENTENCE_START ? SENTENCE_START_WORD : words.get(id - 2);
+            offsets[id] = pool.size();
+            pool.writeBytes(word.getBytes(StandardCharsets.US_ASCII));
+            long hash = SymSpellIndex.hash(word);
+            int slot = (int) (hash ^ (hash >>> 32)) & (vocabularyCapacity - 1);
+            while (slots[slot] != UNKNOWN) {
+                slot = (slot + 1) & (vocabularyCapacity - 1);
+            }
+            slots[slot] = id;
+        }
+        offsets[vocabularySize] = pool.size();
+        ByteBuffer vocabulary = ByteBuffer.allocate((offsets.length + unigrams.length + slots.length) * 4 + pool.size());
+        vocabulary.asIntBuffer().put(offsets).put(unigrams).put(slots);
+        vocabulary.position((offsets.length + unigrams.length + slots.length) * 4);
+        vocabulary.put(pool.toByteArray());
+        vocabulary.flip();
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putInt(vocabularySize).putInt(vocabularyCapacity)
+                .putInt(capacity).putInt(ngramCount).putLong(totalCount).putInt(pool.size()).putInt(minCount);
+        header.flip();
+
+        Path target = Paths.get(modelPath).toAbsolutePath();
+        Path temporary = Files.createTempFile(target.getParent(), "ngrams", ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // The table is filled in place, so it never has to fit on the heap a second time.
+            // Robin Hood insertion: a key takes the slot of one closer to its home, so every run
+            // of keys stays ordered by home slot and a lookup of a missing n-gram stops early.
+            MappedByteBuffer table = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE, (long) capacity * SLOT_SIZE);
+            ngrams.forEach(minCount, (key, count) -> {
+                int slot = homeSlot(key, capacity);
+                long found;
+                for (int distance = 0; (found = table.getLong(slot * SLOT_SIZE)) != 0; distance++) {
+                    int foundDistance = distance(found, slot, capacity);
+                    if (foundDistance < distance) {
+                        int foundCount = table.getInt(slot * SLOT_SIZE + 8);
+                        table.putLong(slot * SLOT_SIZE, key);
+                        table.putInt(slot * SLOT_SIZE + 8, count);
+                        key = found;
+                        count = foundCount;
+                        distance = foundDistance;
+                    }
+                    if (++slot == capacity) {
+                        slot = 0;
+                    }
+                }
+                table.putLong(slot * SLOT_SIZE, key);
+                table.putInt(slot * SLOT_SIZE + 8, count);
+            });
+            table.force();
+            writeFully(channel, header, 0);
+            writeFully(channel, vocabulary, HEADER_SIZE + (long) capacity * SLOT_SIZE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        // Readers either see the old model or the complete new one
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static int saturatedIncrement(int count) {
+        return count == Integer.MAX_VALUE ? count : count + 1;
+    }
+
+    private interface Sink {
+        void word(String word);
+
+        void boundary(boolean sentenceStart);
+    }
+
+    // Feeds the words of the corpus and the context breaks between them to the sink
+    private static void scan(String corpusPath, Sink sink) throws IOException {
+        StringBuilder word = new StringBuilder();
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(corpusPath), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                sink.boundary(true);
+                int i = 0;
+                int length = line.length();
+                while (i < length) {
+                    while (i < length && Tokenizer.isSpace(line.charAt(i))) {
+                        i++;
+                    }
+                    if (i == length) {
+                        break;
+                    }
+                    word.setLength(0);
+                    boolean digits = false;
+                    char last = 0;
+                    for (; i < length && !Tokenizer.isSpace(line.charAt(i)); i++) {
+                        last = line.charAt(i);
+                        if (last >= 'A' && last <= 'Z') {
+                            word.append((char) (last + ('a' - 'A')));
+                        } else if (last >= 'a' && last <= 'z') {
+                            word.append(last);
+                        } else if (last >= '0' && last <= '9') {
+                            digits = true;
+                        }
+                    }
+                    if (digits || word.length() == 0) {
+                        sink.boundary(false);
+                    } else {
+                        sink.word(word.toString());
+                    }
+                    if (last == '.' || last == '!' || last == '?') {
+                        sink.boundary(true);
+                    }
+                }
+            }
+        }
+    }
+
+    // Growable n-gram counts for build(), with the same packed keys and no per-entry objects
+    private static final class CountTable {
+        private long[] keys = new long[1 << 16];
+        private int[] counts = new int[1 << 16];
+        private int size;
+
+        void increment(long key) {
+            int mask = keys.length - 1;
+            int slot = homeSlot(key, keys.length);
+            while (keys[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == 0) {
+                keys[slot] = key;
+                if (++size * 4L > keys.length * 3L) {
+                    counts[slot] = 1;
+                    grow();
+                    return;
+                }
+            }
+            counts[slot] = saturatedIncrement(counts[slot]);
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldCounts = counts;
+            keys = new long[oldKeys.length * 2];
+            counts = new int[oldKeys.length * 2];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    int slot = homeSlot(oldKeys[i], keys.length);
+                    while (keys[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    counts[slot] = oldCounts[i];
+                }
+            }
+        }
+
+        int count(int minCount) {
+            int n = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != 0 && counts[i] >= minCount) {
+                    n++;
+                }
+            }
+            return n;
+        }
+
+        void forEach(int minCount, Entry entry) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != 0 && counts[i] >= minCount) {
+                    entry.accept(keys[i], counts[i]);
+                }
+            }
+        }
+
+        interface Entry {
+            void accept(long key, int count);
+        }
+    }
+}
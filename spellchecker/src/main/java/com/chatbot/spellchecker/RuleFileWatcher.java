@@ -0,0 +1,92 @@
+package com.chatbot.spellchecker;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.function.Consumer;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Reloads a rules file on a daemon thread whenever it changes, and hands the new RuleSet over.
+ *
+ * The directory is watched rather than the file, because editors often save by writing a new
+ * file and renaming it over the old one. Readers are never blocked: the new rules are compiled
+ * completely before they are handed over, and a file that fails to parse (or was deleted)
+ * leaves the current rules in place.
+ */
+final class RuleFileWatcher implements Closeable {
+    // Lets the writer finish and merges the several events of one save into one reload
+    private static final long SETTLE_MILLIS = 100;
+
+    private final Path file;
+    private final Consumer<RuleSet> onReload;
+    private final WatchService watchService;
+    private final Thread thread;
+
+    RuleFileWatcher(Path file, Consumer<RuleSet> onReload) throws IOException {
+        this.file = file.toAbsolutePath();
+        this.onReload = onReload;
+        this.watchService = this.file.getFileSystem().newWatchService();
+        try {
+            this.file.getParent().register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+        } catch (IOException e) {
+            watchService.close();
+            throw e;
+        }
+        thread = new Thread(this::watch, "rule-file-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = changed(key);
+                if (!key.reset()) {
+                    return;
+                }
+                if (changed) {
+                    Thread.sleep(SETTLE_MILLIS);
+                    while ((key = watchService.poll()) != null) {
+                        key.pollEvents();
+                        key.reset();
+                    }
+                    reload();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Closed
+        }
+    }
+
+    private boolean changed(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW || file.getFileName().equals(event.context())) {
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    private void reload() {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try {
+            RuleSet rules = RuleSet.load(file);
+            onReload.accept(rules);
+            System.out.println("Reloaded " + rules.size() + " chat rules from " + file);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Keeping the current chat rules: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+        thread.interrupt();
+    }
+}
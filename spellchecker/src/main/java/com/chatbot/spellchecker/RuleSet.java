@@ -0,0 +1,180 @@
+package com.chatbot.spellchecker;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Chat shorthand rules ("prts = parts", "b/w = between") and words that are kept as typed
+ * ("don't"), compiled into a character trie.
+ *
+ * Rules file format, one rule per line, '#' starts a comment line:
+ *
+ *   typed = replacement     replace the typed token(s) with the replacement
+ *   typed                   keep the token(s) as typed and do not spell check them
+ *
+ * The typed side may span several tokens ("b / w = between"); it matches the same tokens
+ * separated by any whitespace. Matching ignores case, and the longest rule wins.
+ *
+ * A RuleSet is immutable, so any number of threads can match against it while a reload
+ * builds its replacement.
+ */
+final class RuleSet {
+    static final int NONE = -1;
+
+    private final String[] patterns;
+    private final String[] replacements;   // null: keep as typed
+
+    // Trie over the lowercased patterns, tokens joined by ' '. The edges of node n are
+    // edgeChar/edgeNode[firstEdge[n], firstEdge[n + 1]), sorted by character.
+    private final int[] firstEdge;
+    private final char[] edgeChar;
+    private final int[] edgeNode;
+    private final int[] nodeRule;
+
+    private RuleSet(Map<String, String> rules) {
+        patterns = rules.keySet().toArray(new String[0]);
+        replacements = rules.values().toArray(new String[0]);
+
+        // Build with one sorted map per node, then flatten into arrays
+        List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        List<Integer> rulesAt = new ArrayList<>();
+        children.add(new TreeMap<>());
+        rulesAt.add(NONE);
+        for (int rule = 0; rule < patterns.length; rule++) {
+            int node = 0;
+            for (int i = 0; i < patterns[rule].length(); i++) {
+                Integer next = children.get(node).get(patterns[rule].charAt(i));
+                if (next == null) {
+                    next = children.size();
+                    children.get(node).put(patterns[rule].charAt(i), next);
+                    children.add(new TreeMap<>());
+                    rulesAt.add(NONE);
+                }
+                node = next;
+            }
+            rulesAt.set(node, rule);
+        }
+
+        int nodes = children.size();
+        firstEdge = new int[nodes + 1];
+        edgeChar = new char[nodes - 1];
+        edgeNode = new int[nodes - 1];
+        nodeRule = new int[nodes];
+        int edge = 0;
+        for (int node = 0; node < nodes; node++) {
+            firstEdge[node] = edge;
+            nodeRule[node] = rulesAt.get(node);
+            for (Map.Entry<Character, Integer> child : children.get(node).entrySet()) {
+                edgeChar[edge] = child.getKey();
+                edgeNode[edge] = child.getValue();
+                edge++;
+            }
+        }
+        firstEdge[nodes] = edge;
+    }
+
+    static RuleSet load(Path file) throws IOException {
+        return parse(Files.readAllLines(file, StandardCharsets.UTF_8), file.toString());
+    }
+
+    // Throws IllegalArgumentException naming the source and line of the first malformed rule
+    static RuleSet parse(List<String> lines, String source) {
+        Map<String, String> rules = new LinkedHashMap<>();
+        for (int number = 1; number <= lines.size(); number++) {
+            String line = lines.get(number - 1).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            int equals = line.indexOf('=', 1);
+            String pattern = normalize(equals < 0 ? line : line.substring(0, equals));
+            String replacement = equals < 0 ? null : line.substring(equals + 1).trim();
+            if (pattern.isEmpty() || (replacement != null && replacement.isEmpty())) {
+                throw new IllegalArgumentException(source + ":" + number + ": expected 'typed = replacement' or 'typed'");
+            }
+            if (rules.containsKey(pattern)) {
+                throw new IllegalArgumentException(source + ":" + number + ": duplicate rule for '" + pattern + "'");
+            }
+            rules.put(pattern, replacement);
+        }
+        return new RuleSet(rules);
+    }
+
+    // Lowercase, tokens separated by single spaces
+    private static String normalize(String pattern) {
+        StringBuilder normalized = new StringBuilder();
+        for (String token : pattern.trim().split("\\s+")) {
+            if (normalized.length() > 0) {
+                normalized.append(' ');
+            }
+            for (int i = 0; i < token.length(); i++) {
+                normalized.append(lower(token.charAt(i)));
+            }
+        }
+        return normalized.toString();
+    }
+
+    int size() {
+        return patterns.length;
+    }
+
+    String pattern(int rule) {
+        return patterns[rule];
+    }
+
+    // The replacement, or null if the rule keeps the tokens as typed
+    String replacement(int rule) {
+        return replacements[rule];
+    }
+
+    // Longest rule matching whole tokens from the current token on. On a match the token is
+    // extended over all matched tokens and the rule is returned, otherwise NONE.
+    int match(Tokenizer tokens) {
+        String text = tokens.text();
+        int length = text.length();
+        int i = tokens.start();
+        int node = 0;
+        int best = NONE;
+        int bestEnd = 0;
+        while (true) {
+            for (; i < length && !Tokenizer.isSpace(text.charAt(i)); i++) {
+                node = child(node, lower(text.charAt(i)));
+                if (node == NONE) {
+                    break;
+                }
+            }
+            if (node == NONE) {
+                break;
+            }
+            // Rules only match at token ends: "w" must not match the start of "with"
+            if (nodeRule[node] != NONE) {
+                best = nodeRule[node];
+                bestEnd = i;
+            }
+            node = child(node, ' ');
+            while (i < length && Tokenizer.isSpace(text.charAt(i))) {
+                i++;
+            }
+            if (node == NONE || i == length) {
+                break;
+            }
+        }
+        if (best != NONE) {
+            tokens.extendTo(bestEnd);
+        }
+        return best;
+    }
+
+    private int child(int node, char c) {
+        int edge = Arrays.binarySearch(edgeChar, firstEdge[node], firstEdge[node + 1], c);
+        return edge < 0 ? NONE : edgeNode[edge];
+    }
+
+    // Character.toLowerCase agrees with String.toLowerCase except for U+0130, which the latter
+    // turns into two characters; it never matches
+    private static char lower(char c) {
+        return c == '\u0130' ? '\uffff' : Character.toLowerCase(c);
+    }
+}
@@ -0,0 +1,149 @@
+package com.chatbot.spellchecker;
+
+import java.util.Arrays;
+
+/**
+ * Splits run-together tokens ("partsfailed", "contract123456", "partsAE125") into dictionary
+ * words, numbers and known part codes.
+ *
+ * A split is scored like a sentence: each word costs -log of its probability in the dictionary,
+ * so "parts failed" beats "part sf ailed". The best split is found with dynamic programming over
+ * the positions of the token: best[i] is the cheapest split of the first i characters, computed
+ * once from the best[j] before it. Pieces are at most MAX_PIECE_LENGTH characters, so a token
+ * of n characters costs at most n * MAX_PIECE_LENGTH piece lookups, however long or garbled it is.
+ *
+ * Immutable; SpellChecker creates one per dictionary.
+ */
+final class Segmenter {
+    // Longest word or code tried as one piece
+    static final int MAX_PIECE_LENGTH = 24;
+
+    // Shortest word piece; single letters would let almost any typo split into words
+    private static final int MIN_WORD_LENGTH = 2;
+
+    // Shortest word piece in a token with digits, so that code prefixes ("AE130", "PN4021")
+    // are not split off as words
+    private static final int MIN_WORD_BESIDE_DIGITS = 4;
+
+    // One typo per thousand words: a correction at distance d costs d times this on top of the
+    // corrected word, so "misssing" becomes "missing" rather than "miss sing"
+    private static final double EDIT_COST = Math.log(1000);
+
+    // A whole number, and a known code: cheaper than any word, so they are never split further
+    private static final double NUMBER_COST = 1;
+    private static final double CODE_COST = 0;
+
+    private final DictionaryIndex index;
+    private final double logTotal;
+
+    Segmenter(DictionaryIndex index) {
+        this(index, totalFrequency(index));
+    }
+
+    // With the sum of the frequencies already known, e.g. kept up to date by LiveDictionary
+    Segmenter(DictionaryIndex index, long totalFrequency) {
+        this.index = index;
+        this.logTotal = Math.log(Math.max(1, totalFrequency));
+    }
+
+    private static long totalFrequency(DictionaryIndex index) {
+        long total = 0;
+        for (int id = 0; id < index.size(); id++) {
+            total += index.frequency(id);
+        }
+        return total;
+    }
+
+    // A split of a token: the pieces as typed, separated by single spaces, and its cost
+    static final class Segmentation {
+        final String text;
+        final double cost;
+
+        Segmentation(String text, double cost) {
+            this.text = text;
+            this.cost = cost;
+        }
+    }
+
+    // Best split of text[from, to) into two or more words, numbers and known codes, or null if
+    // it has other characters, or some part of it is none of those
+    Segmentation segment(String text, int from, int to, IdentifierRecognizer identifiers) {
+        int length = to - from;
+        boolean digits = false;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits = true;
+            } else if (!isLetter(c)) {
+                return null;
+            }
+        }
+
+        double[] best = new double[length + 1];
+        int[] pieceStart = new int[length + 1];
+        Arrays.fill(best, Double.POSITIVE_INFINITY);
+        best[0] = 0;
+        for (int end = 1; end <= length; end++) {
+            // Grow the last piece to the left, counting its letters on the way
+            int letters = 0;
+            for (int start = end - 1; start >= Math.max(0, end - MAX_PIECE_LENGTH); start--) {
+                if (isLetter(text.charAt(from + start))) {
+                    letters++;
+                }
+                if (best[start] == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                double cost = best[start] + pieceCost(text, from, from + start, from + end, to, letters, digits, identifiers);
+                if (cost < best[end]) {
+                    best[end] = cost;
+                    pieceStart[end] = start;
+                }
+            }
+        }
+        if (best[length] == Double.POSITIVE_INFINITY || pieceStart[length] == 0) {
+            return null;
+        }
+
+        StringBuilder split = new StringBuilder(length + 8);
+        for (int end = length; end > 0; end = pieceStart[end]) {
+            if (split.length() > 0) {
+                split.insert(0, ' ');
+            }
+            split.insert(0, text, from + pieceStart[end], from + end);
+        }
+        return new Segmentation(split.toString(), best[length]);
+    }
+
+    // Cost of correcting a token to a dictionary word instead, comparable with Segmentation.cost
+    double correctionCost(int frequency, int distance) {
+        return logTotal - Math.log(Math.max(1, frequency)) + distance * EDIT_COST;
+    }
+
+    // Cost of text[start, end) as one piece of the token text[from, to), or infinity
+    private double pieceCost(String text, int from, int start, int end, int to, int letters, boolean digits,
+                             IdentifierRecognizer identifiers) {
+        int length = end - start;
+        if (letters == 0) {
+            // Only whole numbers: "ae1256" must not become "ae125" and "6"
+            boolean whole = (start == from || !isDigit(text.charAt(start - 1)))
+                    && (end == to || !isDigit(text.charAt(end)));
+            return whole ? NUMBER_COST : Double.POSITIVE_INFINITY;
+        }
+        if (letters < length) {
+            return identifiers.kindOf(text, start, end) != null ? CODE_COST : Double.POSITIVE_INFINITY;
+        }
+        if (length < (digits ? MIN_WORD_BESIDE_DIGITS : MIN_WORD_LENGTH)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        int id = index.idOfLowerCase(text, start, end);
+        return id < 0 ? Double.POSITIVE_INFINITY : logTotal - Math.log(Math.max(1, index.frequency(id)));
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
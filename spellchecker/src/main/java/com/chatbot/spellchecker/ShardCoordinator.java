@@ -0,0 +1,245 @@
+package com.chatbot.spellchecker;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Scatter-gather front end for a dictionary split across ShardWorker processes.
+ *
+ * Every lookup is sent to all shards at once over one pipelined connection per shard. The
+ * coordinator waits until all shards answered or the per-request deadline passed, then merges
+ * whatever arrived with the same ranking as SpellChecker.findSuggestions (distance first, then
+ * frequency). A shard that misses the deadline only makes the result partial; its late answer
+ * is dropped.
+ *
+ * Usage: java -cp build com.chatbot.spellchecker.ShardCoordinator <dictionary file> <shard count> [timeout ms]
+ *   Launches the workers on localhost and reads one word per line from stdin.
+ */
+public class ShardCoordinator implements AutoCloseable {
+    private final List<ShardConnection> shards = new ArrayList<>();
+    private final List<Process> workers = new ArrayList<>();
+    private final AtomicInteger nextRequestId = new AtomicInteger();
+
+    // Connect to workers that are already running
+    ShardCoordinator(List<InetSocketAddress> addresses) throws IOException {
+        try {
+            for (InetSocketAddress address : addresses) {
+                shards.add(new ShardConnection(address));
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    private ShardCoordinator() {
+    }
+
+    // Start shardCount worker JVMs on this machine and connect to them
+    static ShardCoordinator launchLocal(String dictionaryPath, int shardCount) throws IOException {
+        ShardCoordinator coordinator = new ShardCoordinator();
+        try {
+            String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+            String classpath = System.getProperty("java.class.path");
+            for (int i = 0; i < shardCount; i++) {
+                ProcessBuilder builder = new ProcessBuilder(java, "-cp", classpath, ShardWorker.class.getName(),
+                        dictionaryPath, String.valueOf(i), String.valueOf(shardCount));
+                builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+                coordinator.workers.add(builder.start());
+            }
+            // Workers load their shard in parallel; each announces its port when ready
+            for (Process worker : coordinator.workers) {
+                BufferedReader reader = new BufferedReader(new InputStreamReader(worker.getInputStream()));
+                String line = reader.readLine();
+                if (line == null || !line.startsWith("READY ")) {
+                    throw new IOException("Shard worker failed to start: " + line);
+                }
+                int port = Integer.parseInt(line.substring(6).trim());
+                coordinator.shards.add(new ShardConnection(new InetSocketAddress(InetAddress.getLoopbackAddress(), port)));
+            }
+        } catch (IOException e) {
+            coordinator.close();
+            throw e;
+        }
+        return coordinator;
+    }
+
+    int shardCount() {
+        return shards.size();
+    }
+
+    public Result findSuggestions(String word, int limit, long timeoutMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        int requestId = nextRequestId.incrementAndGet();
+        String lowerWord = word.toLowerCase();
+
+        List<CompletableFuture<List<Suggestion>>> pending = new ArrayList<>();
+        for (ShardConnection shard : shards) {
+            pending.add(shard.send(requestId, lowerWord, limit));
+        }
+
+        List<Suggestion> merged = new ArrayList<>();
+        int answered = 0;
+        for (int i = 0; i < pending.size(); i++) {
+            try {
+                long remaining = deadline - System.nanoTime();
+                merged.addAll(pending.get(i).get(Math.max(0, remaining), TimeUnit.NANOSECONDS));
+                answered++;
+            } catch (TimeoutException | ExecutionException e) {
+                shards.get(i).abandon(requestId);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                shards.get(i).abandon(requestId);
+            }
+        }
+
+        // A word is in exactly one shard; when it was found, that is the whole answer
+        for (Suggestion suggestion : merged) {
+            if (suggestion.distance == 0) {
+                return new Result(Collections.singletonList(suggestion), answered, shards.size());
+            }
+        }
+
+        merged.sort((a, b) -> {
+            if (a.distance != b.distance) {
+                return Integer.compare(a.distance, b.distance);
+            }
+            return Integer.compare(b.frequency, a.frequency);
+        });
+        return new Result(merged.subList(0, Math.min(limit, merged.size())), answered, shards.size());
+    }
+
+    @Override
+    public void close() {
+        for (ShardConnection shard : shards) {
+            shard.close();
+        }
+        for (Process worker : workers) {
+            worker.destroy();
+        }
+    }
+
+    // Merged suggestions plus how many shards contributed to them
+    public static final class Result {
+        final List<Suggestion> suggestions;
+        final int shardsAnswered;
+        final int shardCount;
+
+        Result(List<Suggestion> suggestions, int shardsAnswered, int shardCount) {
+            this.suggestions = suggestions;
+            this.shardsAnswered = shardsAnswered;
+            this.shardCount = shardCount;
+        }
+
+        boolean isPartial() {
+            return shardsAnswered < shardCount;
+        }
+    }
+
+    // One pipelined connection: writes are serialized, a reader thread completes the matching future
+    private static final class ShardConnection {
+        private final Socket socket;
+        private final DataOutputStream out;
+        private final DataInputStream in;
+        private final Map<Integer, CompletableFuture<List<Suggestion>>> pending = new ConcurrentHashMap<>();
+
+        ShardConnection(InetSocketAddress address) throws IOException {
+            socket = new Socket(address.getAddress(), address.getPort());
+            socket.setTcpNoDelay(true);
+            out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            Thread reader = new Thread(this::readResponses, "shard-reader-" + address.getPort());
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        CompletableFuture<List<Suggestion>> send(int requestId, String word, int limit) {
+            CompletableFuture<List<Suggestion>> future = new CompletableFuture<>();
+            pending.put(requestId, future);
+            try {
+                synchronized (out) {
+                    out.writeInt(requestId);
+                    out.writeUTF(word);
+                    out.writeInt(limit);
+                    out.flush();
+                }
+            } catch (IOException e) {
+                pending.remove(requestId);
+                future.completeExceptionally(e);
+            }
+            return future;
+        }
+
+        void abandon(int requestId) {
+            pending.remove(requestId);
+        }
+
+        private void readResponses() {
+            try {
+                while (true) {
+                    int requestId = in.readInt();
+                    int count = in.readInt();
+                    List<Suggestion> suggestions = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        String word = in.readUTF();
+                        int distance = in.readInt();
+                        int frequency = in.readInt();
+                        suggestions.add(new Suggestion(word, distance, frequency));
+                    }
+                    CompletableFuture<List<Suggestion>> future = pending.remove(requestId);
+                    if (future != null) {
+                        future.complete(suggestions);
+                    }
+                }
+            } catch (IOException e) {
+                // Connection is gone: fail whatever is still waiting so callers don't hang
+                for (CompletableFuture<List<Suggestion>> future : pending.values()) {
+                    future.completeExceptionally(e);
+                }
+                pending.clear();
+            }
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Already closed
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: java -cp build com.chatbot.spellchecker.ShardCoordinator"
+                    + " <dictionary file> <shard count> [timeout ms]");
+            System.exit(1);
+        }
+        long timeout = args.length > 2 ? Long.parseLong(args[2]) : 100;
+
+        try (ShardCoordinator coordinator = launchLocal(args[0], Integer.parseInt(args[1]))) {
+            System.out.println("Connected to " + coordinator.shardCount() + " shards. Enter one word per line.");
+            BufferedReader stdin = new BufferedReader(new InputStreamReader(System.in));
+            String line;
+            while ((line = stdin.readLine()) != null && !line.trim().equalsIgnoreCase("quit")) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                Result result = coordinator.findSuggestions(line.trim(), 5, timeout);
+                System.out.println("Suggestions for '" + line.trim() + "' (" + result.shardsAnswered + "/"
+                        + result.shardCount + " shards):");
+                for (int i = 0; i < result.suggestions.size(); i++) {
+                    Suggestion suggestion = result.suggestions.get(i);
+                    System.out.println((i + 1) + ". " + suggestion.word +
+                                       " (distance: " + suggestion.distance +
+                                       ", frequency: " + suggestion.frequency + ")");
+                }
+            }
+        }
+    }
+}
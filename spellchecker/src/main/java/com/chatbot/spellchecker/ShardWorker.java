@@ -0,0 +1,108 @@
+package com.chatbot.spellchecker;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serves one hash shard of the dictionary over a local socket.
+ *
+ * The worker keeps only the words with floorMod(word.hashCode(), shardCount) == shardIndex and
+ * answers suggestion requests for them with its own SpellChecker. Once listening it prints
+ * "READY <port>" on stdout, which is how ShardCoordinator finds the port of a worker it launched.
+ *
+ * Protocol (DataOutput encoding, any number of requests per connection, answered in order):
+ *   request:  int requestId, UTF word, int limit
+ *   response: int requestId, int count, then count times (UTF word, int distance, int frequency)
+ *
+ * Usage: java -cp build com.chatbot.spellchecker.ShardWorker <dictionary file> <shard index> <shard count> [port]
+ */
+public class ShardWorker {
+    private final SpellChecker checker;
+
+    ShardWorker(String dictionaryPath, int shardIndex, int shardCount) throws IOException {
+        Map<String, Integer> shard = SpellChecker.readDictionary(dictionaryPath,
+                word -> shardOf(word, shardCount) == shardIndex);
+        checker = new SpellChecker(shard);
+    }
+
+    static int shardOf(String word, int shardCount) {
+        return Math.floorMod(word.hashCode(), shardCount);
+    }
+
+    void serve(ServerSocket server) throws IOException {
+        while (true) {
+            Socket socket = server.accept();
+            Thread connection = new Thread(() -> handle(socket), "shard-connection");
+            connection.setDaemon(true);
+            connection.start();
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (Socket s = socket;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()))) {
+            s.setTcpNoDelay(true);
+            while (true) {
+                int requestId;
+                try {
+                    requestId = in.readInt();
+                } catch (EOFException e) {
+                    return; // Coordinator closed the connection
+                }
+                String word = in.readUTF();
+                int limit = in.readInt();
+
+                // Only the best `limit` are kept while searching, so the lookup stops early
+                List<Suggestion> suggestions;
+                try {
+                    suggestions = limit < 1 ? Collections.emptyList()
+                            : checker.findSuggestions(word, limit, SpellChecker.MAX_EDIT_DISTANCE, Suggestion.Verbosity.ALL);
+                } catch (RuntimeException e) {
+                    // Answer with no suggestions rather than close the connection, which would
+                    // leave the coordinator's later requests on it waiting for their timeout
+                    checker.metrics().error();
+                    System.err.println("Shard lookup failed for '" + word + "': " + e);
+                    suggestions = Collections.emptyList();
+                }
+                out.writeInt(requestId);
+                out.writeInt(suggestions.size());
+                for (int i = 0; i < suggestions.size(); i++) {
+                    Suggestion suggestion = suggestions.get(i);
+                    out.writeUTF(suggestion.word);
+                    out.writeInt(suggestion.distance);
+                    out.writeInt(suggestion.frequency);
+                }
+                // Only flush when the coordinator has no further pipelined requests waiting
+                if (in.available() == 0) {
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Shard connection failed: " + e.getMessage());
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: java -cp build com.chatbot.spellchecker.ShardWorker"
+                    + " <dictionary file> <shard index> <shard count> [port]");
+            System.exit(1);
+        }
+        int shardIndex = Integer.parseInt(args[1]);
+        int shardCount = Integer.parseInt(args[2]);
+        int port = args.length > 3 ? Integer.parseInt(args[3]) : 0;
+
+        ShardWorker worker = new ShardWorker(args[0], shardIndex, shardCount);
+        try (ServerSocket server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+            System.out.println("READY " + server.getLocalPort());
+            System.out.flush();
+            worker.serve(server);
+        }
+    }
+}
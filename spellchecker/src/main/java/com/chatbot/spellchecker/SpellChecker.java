@@ -0,0 +1,1275 @@
+package com.chatbot.spellchecker;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+
+import com.chatbot.spellchecker.CorrectionMetrics.Outcome;
+
+public class SpellChecker {
+    private volatile Served served;    // The dictionary and the segmenter over it, replaced together
+    public static final int MAX_EDIT_DISTANCE = 3;  // Largest distance suggestions can be at
+    private static final int PREFIX_LENGTH = 7;  // Only the first 7 characters are indexed
+    private static final int CACHE_CAPACITY = 10000;
+    private volatile boolean transpositions = false;      // Count adjacent swaps ("teh" -> "the") as one edit
+    
+    // Suggestions for recently misspelled words, dropped whenever the dictionary is replaced
+    private final SuggestionCache<List<Suggestion>> cache = new SuggestionCache<>(CACHE_CAPACITY);
+    
+    // Latencies, hit rates and token counts; see the "stats" REPL command
+    private final CorrectionMetrics metrics = new CorrectionMetrics(cache);
+    
+    // Chat shorthand and words kept as typed; replaced as a whole when the rules file changes
+    private volatile RuleSet rules = BASIC_RULE_SET;
+    private RuleFileWatcher rulesWatcher;
+    
+    // Known part numbers and contract IDs, which are never spell checked as words
+    private volatile IdentifierRecognizer identifiers = BASIC_IDENTIFIERS;
+    
+    // Publishes single-word changes as new index snapshots; created with the first change
+    // after a load (guarded by this)
+    private LiveDictionary live;
+    
+    // This tenant's layer over the dictionary of the checker it was made from (see withOverlay);
+    // null when the checker has a dictionary of its own (guarded by this)
+    private DictionaryOverlay overlay;
+    
+    // Set by the first withOverlay; the dictionary the tenants share can no longer change
+    // (guarded by this)
+    private boolean shared;
+    
+    // How far the last dictionary load has got, and its completion; the number of loads
+    // started, so that a load that was superseded does not publish (guarded by this)
+    private volatile Readiness readiness = Readiness.READY;
+    private volatile CompletableFuture<Readiness> ready = CompletableFuture.completedFuture(Readiness.READY);
+    private int loads;
+    
+    // Bigram and trigram counts for ranking suggestions by the words before them; null for none
+    private volatile NGramModel ngrams;
+    
+    // Most suggestions ranked by context for one token. Each costs about two cache misses in the
+    // model, so this bounds what context adds to a misspelled token (see NGramBenchmark).
+    static final int CONTEXT_CANDIDATES = 8;
+    
+    // Same as the Segmenter's: each edit counts like a word with a 1-in-1,000 chance
+    private static final double EDIT_COST = Math.log(1000);
+    
+    // What a dictionary load in progress serves so far
+    public enum Readiness {
+        // Not parsed yet: the previous dictionary, or no words at all on startup
+        LOADING,
+        // Words are known, but misspellings get no suggestions until the index is built
+        EXACT_ONLY,
+        // Suggestions too
+        READY
+    }
+    
+    // Returns at once; the dictionary is loaded in the background (see loadDictionaryAsync)
+    public SpellChecker() {
+        loadDictionaryAsync("frequency_dictionary_en_82_765.txt");
+        loadRules("chat_rules.txt");
+        loadIdentifiers("part_master.txt");
+        loadNGrams("ngrams.bin");
+    }
+    
+    // Checker over a dictionary that was already read, e.g. one shard of a larger dictionary
+    SpellChecker(Map<String, Integer> dictionary) {
+        buildIndex(dictionary);
+    }
+    
+    // A tenant of the base checker, sharing its rules, codes, n-grams and dictionary as they are now
+    private SpellChecker(SpellChecker base, DictionaryOverlay overlay) {
+        rules = base.rules;
+        identifiers = base.identifiers;
+        ngrams = base.ngrams;
+        transpositions = base.transpositions;
+        setIndex(overlay);
+    }
+    
+    /**
+     * A checker for one tenant: this checker's dictionary, shared rather than copied, with the
+     * tenant's words on top. The words are added, or reweighted where the dictionary has them;
+     * the suppressed words are left out of its lookups. The tenant starts with this checker's
+     * chat rules, codes, n-gram model and transposition setting, and can load its own. Its
+     * addWord, reweightWord and removeWord change only its layer. Until this checker loads another
+     * dictionary, its own addWord, reweightWord and removeWord throw IllegalStateException,
+     * unless it is a tenant itself, whose changes go to a new layer. Tenants keep the dictionary
+     * they were made with, even after such a load. Tenants of a tenant stack their layers.
+     */
+    public SpellChecker withOverlay(Map<String, Integer> words, Collection<String> suppressed) {
+        Map<String, Integer> layer = new LinkedHashMap<>();
+        words.forEach((word, frequency) -> layer.put(dictionaryWord(word, frequency), frequency));
+        for (String word : suppressed) {
+            layer.put(dictionaryWord(word, 1), DictionaryOverlay.SUPPRESSED);
+        }
+        ready.join();
+        long start = System.nanoTime();
+        SpellChecker tenant = new SpellChecker(this, DictionaryOverlay.over(share(), layer, MAX_EDIT_DISTANCE, PREFIX_LENGTH));
+        tenant.metrics.dictionaryLoaded("overlay of " + layer.size() + " words", tenant.overlay().words(),
+                System.nanoTime() - start);
+        return tenant;
+    }
+    
+    // Same, with the tenant's words read from a file of "word frequency" and "-word" lines;
+    // throws IllegalArgumentException naming the first malformed line
+    public SpellChecker withOverlay(String overlayPath) throws IOException {
+        ready.join();
+        long start = System.nanoTime();
+        SpellChecker tenant = new SpellChecker(this,
+                DictionaryOverlay.load(share(), Paths.get(overlayPath), MAX_EDIT_DISTANCE, PREFIX_LENGTH));
+        DictionaryOverlay overlay = tenant.overlay();
+        tenant.metrics.dictionaryLoaded("overlay " + overlayPath, overlay.words(), System.nanoTime() - start);
+        System.out.printf("Loaded overlay %s: %d words added, %d reweighted, %d suppressed%n", overlayPath,
+                overlay.addedWords(), overlay.reweightedWords(), overlay.suppressedWords());
+        return tenant;
+    }
+    
+    // The dictionary for a tenant to layer over, frozen from now on
+    private synchronized DictionaryIndex share() {
+        shared = true;
+        return served.index;
+    }
+    
+    public void loadDictionary(String dictionaryPath) {
+        int load = startLoad();
+        readDictionaryAndIndex(dictionaryPath);
+        finishLoad(load);
+    }
+    
+    /**
+     * Loads the dictionary on a background thread and returns at once. Once the file is parsed,
+     * its words are served for exact lookups (EXACT_ONLY); once the delete index is built,
+     * misspellings get suggestions as well (READY). Until then the previous dictionary is
+     * served. A snapshot or the basic dictionary is loaded right away. A later load supersedes
+     * this one, and the returned future completes when the dictionary that is finally served
+     * is READY.
+     */
+    public CompletableFuture<Readiness> loadDictionaryAsync(String dictionaryPath) {
+        // Mapping a snapshot is about as fast as starting a thread
+        if (!new File(dictionaryPath).exists()
+                || MappedDictionary.isCurrent(snapshotPath(dictionaryPath), dictionaryPath, MAX_EDIT_DISTANCE, PREFIX_LENGTH)) {
+            loadDictionary(dictionaryPath);
+            return ready;
+        }
+        int load = startLoad();
+        CompletableFuture<Readiness> future = ready;
+        System.out.println("Loading dictionary from: " + dictionaryPath + " (in the background)");
+        Thread loader = new Thread(() -> {
+            long start = System.nanoTime();
+            try {
+                WordPool words = new WordPool(readDictionary(dictionaryPath, word -> true));
+                if (!publish(load, words, Readiness.EXACT_ONLY)) {
+                    return;
+                }
+                System.out.printf("Dictionary words ready for exact lookups: %d words in %.0f ms; indexing...%n",
+                        words.size(), (System.nanoTime() - start) / 1e6);
+                SymSpellIndex indexed = new SymSpellIndex(words, MAX_EDIT_DISTANCE, PREFIX_LENGTH);
+                if (publish(load, indexed, Readiness.READY)) {
+                    metrics.dictionaryLoaded(dictionaryPath, indexed.size(), System.nanoTime() - start);
+                    System.out.printf("Dictionary loaded successfully with %d words! Suggestions enabled after %.0f ms%n",
+                            indexed.size(), (System.nanoTime() - start) / 1e6);
+                }
+            } catch (Exception e) {
+                synchronized (this) {
+                    if (load == loads) {
+                        System.err.println("Error loading dictionary: " + e.getMessage());
+                        System.out.println("Creating basic dictionary...");
+                        createBasicDictionary();
+                        metrics.dictionaryLoaded("basic dictionary", served.index.size(), System.nanoTime() - start);
+                        finishLoad(load);
+                    }
+                }
+            }
+        }, "dictionary-loader");
+        loader.setDaemon(true);
+        loader.start();
+        return future;
+    }
+    
+    public Readiness readiness() {
+        return readiness;
+    }
+    
+    // Completes when the dictionary being loaded is READY; already complete when none is
+    public CompletableFuture<Readiness> ready() {
+        return ready;
+    }
+    
+    // Starts a load that supersedes any other still running, and returns its number
+    private synchronized int startLoad() {
+        if (served == null) {
+            setIndex(new WordPool(Collections.emptyMap()));
+        }
+        readiness = Readiness.LOADING;
+        metrics.dictionaryReadiness(readiness);
+        // Whoever waits for a superseded load waits for this one instead
+        CompletableFuture<Readiness> previous = ready;
+        ready = new CompletableFuture<>();
+        ready.thenAccept(previous::complete);
+        return ++loads;
+    }
+    
+    // Serves the index of a load, unless a later load started since
+    private synchronized boolean publish(int load, DictionaryIndex newIndex, Readiness newReadiness) {
+        if (load != loads) {
+            return false;
+        }
+        setIndex(newIndex);
+        readiness = newReadiness;
+        metrics.dictionaryReadiness(newReadiness);
+        if (newReadiness == Readiness.READY) {
+            ready.complete(newReadiness);
+        }
+        return true;
+    }
+    
+    private synchronized void finishLoad(int load) {
+        if (load == loads) {
+            readiness = Readiness.READY;
+            metrics.dictionaryReadiness(readiness);
+            ready.complete(readiness);
+        }
+    }
+    
+    private void readDictionaryAndIndex(String dictionaryPath) {
+        long start = System.nanoTime();
+        try {
+            System.out.println("Loading dictionary from: " + dictionaryPath);
+            
+            // A current precompiled snapshot replaces parsing and indexing altogether
+            String snapshotPath = snapshotPath(dictionaryPath);
+            if (MappedDictionary.isCurrent(snapshotPath, dictionaryPath, MAX_EDIT_DISTANCE, PREFIX_LENGTH)) {
+                setIndex(MappedDictionary.open(snapshotPath));
+                metrics.dictionaryLoaded("snapshot " + snapshotPath, served.index.size(), System.nanoTime() - start);
+                System.out.println("Dictionary mapped from snapshot " + snapshotPath + " with " + served.index.size() + " words!");
+                return;
+            }
+            
+            File dictFile = new File(dictionaryPath);
+            if (!dictFile.exists()) {
+                System.out.println("Warning: Dictionary file not found. Creating a basic dictionary...");
+                createBasicDictionary();
+                metrics.dictionaryLoaded("basic dictionary", served.index.size(), System.nanoTime() - start);
+                return;
+            }
+            
+            // Read the dictionary file
+            Map<String, Integer> dictionary = readDictionary(dictionaryPath, word -> true);
+            
+            buildIndex(dictionary);
+            metrics.dictionaryLoaded(dictionaryPath, served.index.size(), System.nanoTime() - start);
+            System.out.println("Dictionary loaded successfully with " + dictionary.size() + " words!");
+        } catch (Exception e) {
+            System.err.println("Error loading dictionary: " + e.getMessage());
+            System.out.println("Creating basic dictionary...");
+            createBasicDictionary();
+            metrics.dictionaryLoaded("basic dictionary", served.index.size(), System.nanoTime() - start);
+        }
+    }
+    
+    // Parse "word frequency" lines, keeping only the (lowercased) words accepted by the filter;
+    // duplicate words have their frequencies summed. Parsed on all cores (see DictionaryReader),
+    // so the filter must be safe to call from several threads.
+    static Map<String, Integer> readDictionary(String dictionaryPath, Predicate<String> keep) throws IOException {
+        return DictionaryReader.read(Paths.get(dictionaryPath), keep);
+    }
+    
+    // Snapshot written by 'compile-dictionary' next to the text dictionary
+    static String snapshotPath(String dictionaryPath) {
+        return dictionaryPath + ".snapshot";
+    }
+    
+    // Parse the text dictionary once and write the binary snapshot that loadDictionary maps
+    public static void compileDictionary(String dictionaryPath, String snapshotPath) throws IOException {
+        MappedDictionary.compile(dictionaryPath, snapshotPath, MAX_EDIT_DISTANCE, PREFIX_LENGTH);
+    }
+    
+    private void createBasicDictionary() {
+        Map<String, Integer> dictionary = new HashMap<>();
+        
+        // Create a basic dictionary with common words for testing
+        String[] commonWords = {
+            "the", "and", "is", "in", "to", "of", "a", "that", "it", "with",
+            "for", "as", "was", "on", "are", "you", "this", "be", "at", "have",
+            "or", "from", "one", "had", "but", "word", "not", "what", "all",
+            "were", "they", "we", "when", "your", "can", "said", "there", "use",
+            "an", "each", "which", "she", "do", "how", "their", "if", "will",
+            "up", "other", "about", "out", "many", "then", "them", "these", "so",
+            "some", "her", "would", "make", "like", "into", "him", "has", "two",
+            "more", "very", "after", "words", "first", "where", "much", "through",
+            "hello", "world", "computer", "programming", "java", "spell", "check",
+            "correct", "mistake", "error", "text", "word", "sentence", "language",
+            "receive", "believe", "achieve", "piece", "their", "there", "they're",
+            "separate", "definitely", "beginning", "beautiful", "necessary",
+            "embarrass", "occurring", "recommend", "disappear", "tomorrow",
+            "weird", "friend", "business", "really", "until", "immediately",
+            "sophisticated", "my", "name", "am", "people", "person", "because",
+            "between", "important", "example", "government", "company", "system",
+            "program", "question", "number", "public", "information", "development",
+            "i", "me", "him", "her", "us", "them", "myself", "yourself", "himself",
+            "herself", "ourselves", "themselves", "show", "contract", "details",
+            "display", "view", "get", "fetch", "retrieve", "find", "search", "list",
+            "create", "update", "delete", "add", "remove", "edit", "modify", "save",
+            "document", "file", "record", "data", "user", "customer", "client",
+            "order", "invoice", "payment", "account", "status", "active", "inactive",
+            "contracts", "customers", "accounts", "users", "clients", "orders",
+            "effective", "expired", "draft", "state", "date", "month", "year",
+            "created", "between", "from", "today", "summary", "number", "by",
+            "info", "information", "metadata", "after", "before", "under", "all",
+            "project", "type", "price", "list", "corporate", "opportunity", "code",
+            "fields", "last", "details", "fields", "boeing", "siemens", "mary",
+            "honeywel", "honeywell", "jan", "june", "january", "vinod",
+            "part", "parts", "product", "products", "specifications", "datasheet",
+            "compatible", "available", "stock", "discontinued", "active", "provide",
+            "manufacturer", "issues", "defects", "warranty", "period", "lead", "time",
+            "validation", "failed", "passed", "missing", "rejected", "loaded", "loading",
+            "pricing", "mismatch", "master", "data", "skipped", "successful", "cost",
+            "error", "errors", "happened", "during", "today", "added", "what", "are",
+            "check", "because", "why", "how", "many", "where", "when", "who", "any",
+            "showing", "me", "due", "while", "not", "in", "on", "details", "status",
+            "happen", "all", "get", "that", "then", "stock", "skipped", "passed"
+        };
+        
+        for (String word : commonWords) {
+            dictionary.put(word, 1000);
+        }
+        
+        // Give higher frequencies to very common words
+        dictionary.put("my", 10000);  // Higher than "am"
+        dictionary.put("i", 8000);
+        dictionary.put("you", 7000);
+        dictionary.put("the", 15000);
+        dictionary.put("and", 12000);
+        dictionary.put("is", 10000);
+        dictionary.put("a", 9000);
+        dictionary.put("show", 6000);  // High frequency for "shw" correction
+        dictionary.put("contract", 5000);  // High frequency for "cntroct" correction
+        dictionary.put("contracts", 4800);  // Plural form
+        dictionary.put("customer", 4500);   // High frequency for customer variations
+        dictionary.put("customers", 4300);  // Plural form
+        dictionary.put("account", 4000);    // High frequency for account variations
+        dictionary.put("accounts", 3800);   // Plural form
+        dictionary.put("effective", 3500);  // High frequency for "efective" correction
+        dictionary.put("draft", 3000);      // High frequency for "drafft" correction
+        dictionary.put("status", 3500);     // High frequency for status variations
+        dictionary.put("date", 4000);       // Should stay as "date", not "data"
+        dictionary.put("info", 4500);       // High frequency for "infro" correction
+        dictionary.put("after", 4000);      // High frequency for "aftr" correction
+        dictionary.put("last", 3500);       // High frequency for "lst" correction
+        dictionary.put("between", 6000);    // Very high frequency for "btwn" correction
+        dictionary.put("created", 3500);    // High frequency for "creatd" correction
+        dictionary.put("vinod", 2000);      // Proper name - lower frequency but present
+        
+        // Parts management terms - high frequency
+        dictionary.put("part", 4000);       // High frequency for "part" preservation
+        dictionary.put("parts", 5500);     // Higher frequency for "prts" correction (prefer plural)
+        dictionary.put("product", 4500);   // High frequency for "prduct" correction
+        dictionary.put("list", 4200);      // High frequency for "lst" correction (over "last")
+        dictionary.put("what", 5500);      // Very high frequency for "wat" correction
+        dictionary.put("are", 5200);       // Very high frequency for "r" correction
+        dictionary.put("provide", 4000);   // High frequency for "provid" correction
+        dictionary.put("datasheet", 3500); // High frequency for "datashet" correction
+        dictionary.put("compatible", 3000); // High frequency for "compatble" correction
+        dictionary.put("available", 3200); // High frequency for "avalable" correction
+        dictionary.put("discontinued", 2800); // High frequency for "discontnued" correction
+        dictionary.put("specifications", 2500); // High frequency for "specifcations" correction
+        dictionary.put("failed", 3800);    // High frequency for "faild" correction
+        dictionary.put("validation", 2200); // High frequency for validation terms
+        dictionary.put("loaded", 2800);    // High frequency for loading terms
+        dictionary.put("manufacturer", 2000); // High frequency for "manufacterer" correction
+        dictionary.put("showing", 3000);   // High frequency for "showing" preservation
+        dictionary.put("me", 4500);        // High frequency for "mee" correction
+        dictionary.put("not", 5000);       // High frequency for "nt" correction
+        dictionary.put("added", 3500);     // High frequency for "addedd" correction
+        dictionary.put("pricing", 3000);   // High frequency for "pricng" correction
+        dictionary.put("because", 3800);   // High frequency for "becasue" correction
+        dictionary.put("details", 3500);   // High frequency for "detalis" correction
+        dictionary.put("happen", 3000);    // High frequency for "happen" preservation
+        dictionary.put("successful", 2800); // High frequency for "successfull" correction
+        
+        // Add common contractions
+        dictionary.put("i'm", 4000);
+        dictionary.put("don't", 3000);
+        dictionary.put("can't", 3000);
+        dictionary.put("won't", 3000);
+        dictionary.put("it's", 3000);
+        dictionary.put("who's", 3500);  // High frequency for parts queries
+        dictionary.put("any", 4500);    // High frequency word
+        
+        // Add common abbreviations
+        dictionary.put("no", 2500);          // For "number"
+        dictionary.put("acc", 2000);         // For "account"
+        
+        buildIndex(dictionary);
+        System.out.println("Basic dictionary created with " + commonWords.length + " words.");
+    }
+    
+    // Load the chat rules and keep reloading them whenever the file changes
+    public synchronized void loadRules(String rulesPath) {
+        Path path = Paths.get(rulesPath);
+        try {
+            if (Files.exists(path)) {
+                rules = RuleSet.load(path);
+                System.out.println("Loaded " + rules.size() + " chat rules from " + rulesPath);
+            } else {
+                System.out.println("Warning: Rules file not found. Using the basic chat rules...");
+                rules = BASIC_RULE_SET;
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error loading chat rules: " + e.getMessage());
+            System.out.println("Using the basic chat rules...");
+            rules = BASIC_RULE_SET;
+        }
+        
+        // Also watch a missing file, so that creating it takes effect
+        try {
+            if (rulesWatcher != null) {
+                rulesWatcher.close();
+            }
+            rulesWatcher = new RuleFileWatcher(path, newRules -> rules = newRules);
+        } catch (IOException e) {
+            rulesWatcher = null;
+            System.err.println("Not watching " + rulesPath + " for changes: " + e.getMessage());
+        }
+    }
+    
+    RuleSet rules() {
+        return rules;
+    }
+    
+    // Load the part and contract master data
+    public void loadIdentifiers(String masterDataPath) {
+        Path path = Paths.get(masterDataPath);
+        try {
+            if (Files.exists(path)) {
+                long start = System.nanoTime();
+                identifiers = IdentifierRecognizer.load(path);
+                System.out.printf("Loaded %d part and contract codes from %s in %d ms (%d KB)%n",
+                        identifiers.size(), masterDataPath, (System.nanoTime() - start) / 1_000_000,
+                        identifiers.sizeInBytes() / 1024);
+            } else {
+                System.out.println("Warning: Part master file not found. Using the basic part numbers...");
+                identifiers = BASIC_IDENTIFIERS;
+            }
+        } catch (IOException e) {
+            System.err.println("Error loading part master data: " + e.getMessage());
+            System.out.println("Using the basic part numbers...");
+            identifiers = BASIC_IDENTIFIERS;
+        }
+    }
+    
+    IdentifierRecognizer identifiers() {
+        return identifiers;
+    }
+    
+    // Map the n-gram model written by 'build-ngrams'; without one, suggestions are ranked without context
+    public void loadNGrams(String modelPath) {
+        try {
+            if (Files.exists(Paths.get(modelPath))) {
+                long start = System.nanoTime();
+                ngrams = NGramModel.open(modelPath);
+                System.out.printf("Mapped %d n-grams of %d words from %s in %d ms%n", ngrams.ngramCount(),
+                        ngrams.vocabularySize() - 2, modelPath, (System.nanoTime() - start) / 1_000_000);
+            } else {
+                System.out.println("Warning: N-gram model not found. Ranking suggestions without context...");
+                ngrams = null;
+            }
+        } catch (IOException e) {
+            System.err.println("Error loading n-gram model: " + e.getMessage());
+            System.out.println("Ranking suggestions without context...");
+            ngrams = null;
+        }
+    }
+    
+    // Count the words, bigrams and trigrams of a text corpus into the file loadNGrams maps
+    public static void buildNGrams(String corpusPath, String modelPath, int minCount) throws IOException {
+        NGramModel.build(corpusPath, modelPath, minCount);
+    }
+    
+    void setNGrams(NGramModel ngrams) {
+        this.ngrams = ngrams;
+    }
+    
+    // Use optimal string alignment distance instead of plain Levenshtein distance
+    public void setTranspositions(boolean transpositions) {
+        this.transpositions = transpositions;
+    }
+    
+    // Precompute the delete-neighborhood index over the dictionary
+    private void buildIndex(Map<String, Integer> dictionary) {
+        setIndex(new SymSpellIndex(dictionary, MAX_EDIT_DISTANCE, PREFIX_LENGTH));
+    }
+    
+    private synchronized void setIndex(DictionaryIndex newIndex) {
+        // Changes still being applied to the previous dictionary must not be published over this one
+        if (live != null) {
+            live.close();
+            live = null;
+        }
+        // A dictionary just loaded has no tenants yet
+        shared = false;
+        overlay = newIndex instanceof DictionaryOverlay ? (DictionaryOverlay) newIndex : null;
+        served = new Served(newIndex,
+                overlay == null ? new Segmenter(newIndex) : new Segmenter(overlay, overlay.totalFrequency()));
+        cache.invalidate();
+    }
+    
+    // Published as one, so that a reader never segments with a different dictionary than it looks
+    // words up in
+    private static final class Served {
+        final DictionaryIndex index;
+        final Segmenter segmenter;
+        
+        Served(DictionaryIndex index, Segmenter segmenter) {
+            this.index = index;
+            this.segmenter = segmenter;
+        }
+    }
+    
+    // Add a word, or change the frequency of a known one, while lookups keep running
+    public void addWord(String word, int frequency) {
+        String key = dictionaryWord(word, frequency);
+        if (!changeOverlay(key, frequency, false)) {
+            liveDictionary().put(key, frequency);
+        }
+        dictionaryChanged(key);
+    }
+    
+    // Change the frequency of a known word; false if it is not in the dictionary
+    public boolean reweightWord(String word, int frequency) {
+        String key = dictionaryWord(word, frequency);
+        if (!changeOverlay(key, frequency, true) && (overlay() != null || !liveDictionary().reweight(key, frequency))) {
+            return false;
+        }
+        dictionaryChanged(key);
+        return true;
+    }
+    
+    // Remove a word while lookups keep running; false if it is not in the dictionary
+    public boolean removeWord(String word) {
+        String key = dictionaryWord(word, 1);
+        if (!changeOverlay(key, DictionaryOverlay.SUPPRESSED, true) && (overlay() != null || !liveDictionary().remove(key))) {
+            return false;
+        }
+        dictionaryChanged(key);
+        return true;
+    }
+    
+    // A tenant's changes rebuild its layer, which costs the layer's words and not the shared
+    // dictionary's. False if this checker has no layer, or the word must be known and is not.
+    private synchronized boolean changeOverlay(String word, int frequency, boolean mustBeKnown) {
+        if (overlay == null || (mustBeKnown && overlay.idOf(word) < 0)) {
+            return false;
+        }
+        DictionaryOverlay changed = overlay.with(word, frequency);
+        overlay = changed;
+        served = new Served(changed, new Segmenter(changed, changed.totalFrequency()));
+        metrics.dictionaryResized(changed.words());
+        return true;
+    }
+    
+    synchronized DictionaryOverlay overlay() {
+        return overlay;
+    }
+    
+    private static String dictionaryWord(String word, int frequency) {
+        String key = word.trim().toLowerCase();
+        if (key.isEmpty() || key.chars().anyMatch(Character::isWhitespace)) {
+            throw new IllegalArgumentException("Not a single word: '" + word + "'");
+        }
+        if (frequency < 1) {
+            throw new IllegalArgumentException("Frequency must be positive: " + frequency);
+        }
+        return key;
+    }
+    
+    // Changes wait for a load in progress, which would replace the dictionary they were made to
+    private LiveDictionary liveDictionary() {
+        ready.join();
+        synchronized (this) {
+            if (shared) {
+                throw new IllegalStateException("The dictionary is shared with tenants and can no longer change");
+            }
+            if (live == null) {
+                live = new LiveDictionary(served.index, MAX_EDIT_DISTANCE, PREFIX_LENGTH, snapshot -> {
+                    served = new Served(snapshot, new Segmenter(snapshot, snapshot.totalFrequency()));
+                    metrics.dictionaryResized(snapshot.words());
+                });
+            }
+            return live;
+        }
+    }
+    
+    // Only the cached misspellings within reach of the word can have a different answer now.
+    // An edit changes which characters occur in at most two places, so comparing character
+    // masks rules out most of the cache before any edit distance is computed.
+    private void dictionaryChanged(String word) {
+        long wordMask = characterMask(word, 0);
+        cache.invalidateIf(key -> {
+            int start = key.indexOf(':') + 1;
+            if (Math.abs(key.length() - start - word.length()) > MAX_EDIT_DISTANCE
+                    || Long.bitCount(characterMask(key, start) ^ wordMask) > 2 * MAX_EDIT_DISTANCE) {
+                return false;
+            }
+            return EditDistance.distance(key.substring(start), word, MAX_EDIT_DISTANCE, true) <= MAX_EDIT_DISTANCE;
+        });
+        metrics.dictionaryChanged();
+    }
+    
+    // One bit per character that occurs (characters 64 apart share a bit)
+    private static long characterMask(String s, int from) {
+        long mask = 0;
+        for (int i = from; i < s.length(); i++) {
+            mask |= 1L << s.charAt(i);
+        }
+        return mask;
+    }
+    
+    synchronized LiveDictionary live() {
+        return live;
+    }
+    
+    CorrectionMetrics metrics() {
+        return metrics;
+    }
+    
+    Segmenter segmenter() {
+        return served.segmenter;
+    }
+    
+    SuggestionCache<List<Suggestion>> suggestionCache() {
+        return cache;
+    }
+    
+    // Calculate Levenshtein distance between two strings with the full matrix.
+    // Reference for scanSuggestions and the benchmarks; lookups use EditDistance.
+    int editDistance(String s1, String s2) {
+        int len1 = s1.length();
+        int len2 = s2.length();
+        
+        // dp[i][j] = minimum edits to transform s1[0..i-1] to s2[0..j-1]
+        int[][] dp = new int[len1 + 1][len2 + 1];
+        
+        // Initialize base cases
+        for (int i = 0; i <= len1; i++) {
+            dp[i][0] = i;
+        }
+        for (int j = 0; j <= len2; j++) {
+            dp[0][j] = j;
+        }
+        
+        // Fill the dp table
+        for (int i = 1; i <= len1; i++) {
+            for (int j = 1; j <= len2; j++) {
+                if (s1.charAt(i - 1) == s2.charAt(j - 1)) {
+                    dp[i][j] = dp[i - 1][j - 1];
+                } else {
+                    dp[i][j] = 1 + Math.min(Math.min(dp[i - 1][j], dp[i][j - 1]), dp[i - 1][j - 1]);
+                }
+            }
+        }
+        
+        return dp[len1][len2];
+    }
+    
+    // Find suggestions for a word: every word within MAX_EDIT_DISTANCE, or only the word itself
+    // if it is in the dictionary
+    public List<Suggestion> findSuggestions(String word) {
+        return findSuggestions(word, Integer.MAX_VALUE, MAX_EDIT_DISTANCE, null);
+    }
+    
+    /**
+     * Find at most k suggestions for a word within maxDistance (0 to MAX_EDIT_DISTANCE), closest
+     * first, then most frequent. TOP returns the single best, CLOSEST the words at the smallest
+     * distance found, ALL every word within maxDistance, including the word itself when it is in
+     * the dictionary. Only the k best are kept while searching, so asking for fewer or closer
+     * suggestions lets the search stop early.
+     */
+    public List<Suggestion> findSuggestions(String word, int k, int maxDistance, Suggestion.Verbosity verbosity) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be positive: " + k);
+        }
+        if (maxDistance < 0 || maxDistance > MAX_EDIT_DISTANCE) {
+            throw new IllegalArgumentException("Max distance must be from 0 to " + MAX_EDIT_DISTANCE + ": " + maxDistance);
+        }
+        boolean timed = metrics.sampleLookup();
+        CorrectionEvents.Lookup event = CorrectionEvents.ENABLED ? new CorrectionEvents.Lookup() : null;
+        if (!timed && event == null) {
+            return lookup(word, k, maxDistance, verbosity);
+        }
+        if (event != null) {
+            event.begin();
+        }
+        long start = System.nanoTime();
+        List<Suggestion> suggestions = lookup(word, k, maxDistance, verbosity);
+        if (timed) {
+            metrics.lookup(System.nanoTime() - start);
+        }
+        if (event != null && event.shouldCommit()) {
+            event.word = word;
+            event.suggestions = suggestions.size();
+            event.commit();
+        }
+        return suggestions;
+    }
+    
+    // Without a verbosity, every suggestion within maxDistance, as findSuggestions(word) returns them
+    private List<Suggestion> lookup(String word, int k, int maxDistance, Suggestion.Verbosity verbosity) {
+        word = word.toLowerCase();
+        
+        // Read the epoch before the index: a reload swaps the index first, then bumps the epoch
+        long epoch = cache.epoch();
+        DictionaryIndex current = served.index;
+        
+        // If word exists in dictionary, return it
+        int wordId = current.idOf(word);
+        if (wordId >= 0 && verbosity != Suggestion.Verbosity.ALL) {
+            List<Suggestion> suggestions = new ArrayList<>();
+            suggestions.add(new Suggestion(word, 0, current.frequency(wordId)));
+            return suggestions;
+        }
+        
+        // Misspellings repeat a lot; the cached lists are shared, so they are read-only
+        String key = maxDistance + (transpositions ? "t" : "l")
+                + (verbosity == null ? "" : verbosity.name().charAt(0) + Integer.toString(k)) + ":" + word;
+        List<Suggestion> cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        List<Suggestion> suggestions = Collections.unmodifiableList(verbosity == null
+                ? computeSuggestions(current, word) : computeSuggestions(current, word, k, maxDistance, verbosity));
+        cache.put(key, suggestions, epoch);
+        return suggestions;
+    }
+    
+    // Fuzzy lookup of a word that is not in the dictionary, without the cache
+    List<Suggestion> computeSuggestions(String word) {
+        return computeSuggestions(served.index, word.toLowerCase());
+    }
+    
+    private List<Suggestion> computeSuggestions(DictionaryIndex index, String word) {
+        List<Suggestion> suggestions = new ArrayList<>();
+        
+        // Only verify the words that share a delete with the input; candidates come back
+        // in dictionary order, so ties keep the same order as a full scan
+        int[] candidates = index.candidates(word);
+        metrics.candidatesCompared(candidates.length);
+        for (int id : candidates) {
+            int distance = index.distance(word, id, MAX_EDIT_DISTANCE, transpositions);
+            if (distance <= MAX_EDIT_DISTANCE) {
+                suggestions.add(new Suggestion(index.word(id), distance, index.frequency(id)));
+            }
+        }
+        
+        sortSuggestions(suggestions);
+        return suggestions;
+    }
+    
+    // Top-k lookup of a word, without the cache
+    List<Suggestion> computeSuggestions(String word, int k, int maxDistance, Suggestion.Verbosity verbosity) {
+        return computeSuggestions(served.index, word.toLowerCase(), k, maxDistance, verbosity);
+    }
+    
+    /**
+     * The k best suggestions, searched by the number of deletes from the input: a word within d
+     * edits shares a delete of at most d deletions with it, so once deletes 0 to d are searched,
+     * every word not found yet is more than d edits away. The heap keeps the k best; the
+     * distance threshold drops to the worst one kept when the heap is full, and to the closest
+     * found for TOP and CLOSEST. Verification gives up at the threshold, and the search stops as
+     * soon as the next number of deletes is beyond it.
+     */
+    private List<Suggestion> computeSuggestions(DictionaryIndex index, String word, int k, int maxDistance,
+                                                Suggestion.Verbosity verbosity) {
+        boolean closest = verbosity != Suggestion.Verbosity.ALL;
+        SuggestionHeap heap = new SuggestionHeap(verbosity == Suggestion.Verbosity.TOP ? 1 : k);
+        int threshold = maxDistance;
+        int[] verified = new int[0];
+        int compared = 0;
+        for (int deletes = 0; deletes <= threshold; deletes++) {
+            int[] candidates = index.candidates(word, deletes);
+            for (int id : candidates) {
+                // Words found with fewer deletes were verified already
+                if (Arrays.binarySearch(verified, id) >= 0) {
+                    continue;
+                }
+                compared++;
+                int distance = index.distance(word, id, threshold, transpositions);
+                if (distance > threshold) {
+                    continue;
+                }
+                if (closest && distance < threshold) {
+                    // A closer word: the ones kept so far are no longer the closest
+                    heap.clear();
+                    threshold = distance;
+                }
+                if (heap.offer(SuggestionHeap.rank(distance, index.frequency(id), id)) && heap.full()) {
+                    threshold = Math.min(threshold, heap.worstDistance());
+                }
+            }
+            verified = merge(verified, candidates);
+        }
+        metrics.candidatesCompared(compared);
+        
+        List<Suggestion> suggestions = new ArrayList<>(heap.size());
+        for (long rank : heap.sorted()) {
+            int id = SuggestionHeap.id(rank);
+            suggestions.add(new Suggestion(index.word(id), SuggestionHeap.distance(rank), index.frequency(id)));
+        }
+        return suggestions;
+    }
+    
+    // Union of two ascending arrays without duplicates
+    private static int[] merge(int[] a, int[] b) {
+        if (a.length == 0) {
+            return b;
+        }
+        int[] merged = new int[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        int count = 0;
+        while (i < a.length || j < b.length) {
+            int next = j == b.length || (i < a.length && a[i] < b[j]) ? a[i++] : b[j++];
+            if (count == 0 || merged[count - 1] != next) {
+                merged[count++] = next;
+            }
+        }
+        return Arrays.copyOf(merged, count);
+    }
+    
+    // Reference implementation: compare against every dictionary word. Kept for benchmarks
+    // and for checking that the index returns exactly the same suggestions.
+    List<Suggestion> scanSuggestions(String word) {
+        List<Suggestion> suggestions = new ArrayList<>();
+        word = word.toLowerCase();
+        
+        DictionaryIndex index = served.index;
+        int wordId = index.idOf(word);
+        if (wordId >= 0) {
+            suggestions.add(new Suggestion(word, 0, index.frequency(wordId)));
+            return suggestions;
+        }
+        
+        // Find words with edit distance <= MAX_EDIT_DISTANCE
+        for (int id = 0; id < index.size(); id++) {
+            if (index.removed(id)) {
+                continue;
+            }
+            String dictWord = index.word(id);
+            int distance = editDistance(word, dictWord);
+            if (distance <= MAX_EDIT_DISTANCE) {
+                suggestions.add(new Suggestion(dictWord, distance, index.frequency(id)));
+            }
+        }
+        
+        sortSuggestions(suggestions);
+        return suggestions;
+    }
+    
+    // Sort suggestions by distance first, then by frequency (descending)
+    private static void sortSuggestions(List<Suggestion> suggestions) {
+        suggestions.sort((a, b) -> {
+            if (a.distance != b.distance) {
+                return Integer.compare(a.distance, b.distance);
+            }
+            return Integer.compare(b.frequency, a.frequency);
+        });
+    }
+    
+    public void correctWord(String word) {
+        try {
+            List<Suggestion> suggestions = findSuggestions(word, 5, MAX_EDIT_DISTANCE, Suggestion.Verbosity.ALL);
+            
+            if (suggestions.isEmpty()) {
+                System.out.println("No suggestions found for: " + word);
+            } else if (suggestions.get(0).distance == 0) {
+                System.out.println("'" + word + "' is spelled correctly.");
+            } else {
+                System.out.println("Suggestions for '" + word + "':");
+                for (int i = 0; i < suggestions.size(); i++) {
+                    Suggestion suggestion = suggestions.get(i);
+                    System.out.println((i + 1) + ". " + suggestion.word + 
+                                     " (distance: " + suggestion.distance + 
+                                     ", frequency: " + suggestion.frequency + ")");
+                }
+            }
+            printReadiness();
+        } catch (Exception e) {
+            metrics.error();
+            System.err.println("Error correcting word: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+    
+    public void checkCode(String code) {
+        IdentifierRecognizer.Kind kind = identifiers.kindOf(code);
+        if (kind != null) {
+            System.out.println("'" + code + "' is a known " + kind.name().toLowerCase() + ".");
+            return;
+        }
+        List<String> nearest = identifiers.nearest(code);
+        if (nearest.isEmpty()) {
+            System.out.println("'" + code + "' is not a known part or contract.");
+        } else {
+            System.out.println("'" + code + "' is not known. Did you mean:");
+            for (int i = 0; i < nearest.size(); i++) {
+                System.out.println((i + 1) + ". " + nearest.get(i) + " (" +
+                                 identifiers.kindOf(nearest.get(i)).name().toLowerCase() + ")");
+            }
+        }
+    }
+    
+    public void correctText(String text) {
+        System.out.println("\n--- Text Correction ---");
+        CorrectionResult result = correct(text);
+        for (CorrectionResult.Edit edit : result.edits) {
+            System.out.println("Corrected: " + edit.original + " -> " + edit.corrected);
+        }
+        
+        System.out.println("\nOriginal: " + text);
+        System.out.println("Corrected: " + result.corrected);
+        printReadiness();
+    }
+    
+    // Says what a dictionary load in progress serves so far; false if it is READY
+    private boolean printReadiness() {
+        Readiness readiness = this.readiness;
+        if (readiness == Readiness.LOADING) {
+            System.out.println("Note: the dictionary is still loading (" + readiness + "); no word is known yet. "
+                    + "Suggestions turn on when indexing finishes.");
+        } else if (readiness == Readiness.EXACT_ONLY) {
+            System.out.println("Note: the dictionary is being indexed (" + readiness + "); known words are recognized. "
+                    + "Suggestions turn on when indexing finishes.");
+        }
+        return readiness != Readiness.READY;
+    }
+    
+    // Correct a whole text and return the result instead of printing it; safe to call concurrently
+    public CorrectionResult correct(String text) {
+        CorrectionEvents.Correction event = CorrectionEvents.ENABLED ? new CorrectionEvents.Correction() : null;
+        if (event != null) {
+            event.begin();
+        }
+        long start = System.nanoTime();
+        int[] counts = new int[CorrectionMetrics.OUTCOME_COUNT];
+        CorrectionResult result = correct(text, counts);
+        metrics.correction(System.nanoTime() - start, counts);
+        if (event != null && event.shouldCommit()) {
+            event.length = text.length();
+            for (int count : counts) {
+                event.tokens += count;
+            }
+            event.edits = result.edits.size();
+            event.commit();
+        }
+        return result;
+    }
+    
+    // counts[o] is incremented for every token with outcome o
+    private CorrectionResult correct(String text, int[] counts) {
+        // One rule set for the whole text, even if the rules are reloaded meanwhile
+        RuleSet rules = this.rules;
+        IdentifierRecognizer identifiers = this.identifiers;
+        Served served = this.served;
+        DictionaryIndex index = served.index;
+        Segmenter segmenter = served.segmenter;
+        NGramModel ngrams = this.ngrams;
+        Tokenizer tokens = new Tokenizer(text);
+        NGramModel.Context context = new NGramModel.Context();
+        List<CorrectionResult.Edit> edits = new ArrayList<>();
+        
+        while (tokens.next()) {
+            if (tokens.atSentenceStart()) {
+                context.startSentence();
+            }
+            
+            // Handle special contractions typed with a semicolon
+            if (tokens.hasSemicolon()) {
+                String originalWord = tokens.token();
+                edits.add(new CorrectionResult.Edit(originalWord, tokens.replace(fixSemicolons(originalWord))));
+                counts[Outcome.SEMICOLON_FIXED.ordinal()]++;
+                context.reset();
+                continue;
+            }
+            
+            // Chat shorthand, and words that must be kept as typed
+            int rule = rules.match(tokens);
+            if (rule != RuleSet.NONE) {
+                String replacement = rules.replacement(rule);
+                if (replacement == null) {
+                    // A phrase rule may have extended the token over several words
+                    context.push(ngrams != null ? tokens.lastLowerLetters() : null);
+                    tokens.keep();
+                    counts[Outcome.RULE_KEPT.ordinal()]++;
+                } else {
+                    String originalWord = tokens.token();
+                    edits.add(new CorrectionResult.Edit(originalWord, tokens.replace(replacement)));
+                    counts[Outcome.RULE_REPLACED.ordinal()]++;
+                    context.push(replacement.toLowerCase());
+                }
+                continue;
+            }
+            
+            switch (tokens.kind()) {
+                case NUMBER:
+                case PUNCTUATION:
+                    tokens.keep();
+                    counts[Outcome.NUMBER_OR_SYMBOL.ordinal()]++;
+                    context.reset();
+                    continue;
+                case PART_CODE:
+                    // Codes are never turned into English words: known codes are kept, a near
+                    // miss with a single best match ("AE12S") is corrected to that code, and
+                    // words glued to numbers or codes are split off ("contract123456")
+                    int codeStart = tokens.coreStart();
+                    int codeEnd = tokens.coreEnd();
+                    String code = null;
+                    Outcome outcome = Outcome.CODE_KEPT;
+                    if (identifiers.kindOf(text, codeStart, codeEnd) == null) {
+                        code = identifiers.correction(text, codeStart, codeEnd);
+                        outcome = Outcome.CODE_CORRECTED;
+                        if (code == null) {
+                            Segmenter.Segmentation split = segmenter.segment(text, codeStart, codeEnd, identifiers);
+                            code = split == null ? null : split.text;
+                            outcome = split == null ? Outcome.CODE_KEPT : Outcome.SPLIT;
+                        }
+                    }
+                    if (code != null) {
+                        String originalWord = tokens.token();
+                        edits.add(new CorrectionResult.Edit(originalWord, tokens.replaceCore(code)));
+                    } else {
+                        tokens.keep();
+                    }
+                    counts[outcome.ordinal()]++;
+                    context.reset();
+                    continue;
+                default:
+                    break;
+            }
+            
+            // Only the letters are spell checked; the rest of the token is preserved
+            if (tokens.letters() == 0) {
+                tokens.keep();
+                counts[Outcome.NUMBER_OR_SYMBOL.ordinal()]++;
+                context.reset();
+                continue;
+            }
+            
+            // Skip likely proper names (capitalized words that aren't at sentence start)
+            if (tokens.startsWithUpperCase() && !tokens.atSentenceStart()) {
+                tokens.keep();
+                counts[Outcome.PROPER_NAME.ordinal()]++;
+                context.reset();
+                continue;
+            }
+            
+            try {
+                String word = tokens.lowerLetters();
+                
+                // Run-together words ("partsfailed"), unless a correction explains the token better
+                Segmenter.Segmentation split = null;
+                boolean known = index.idOf(word) >= 0;
+                if (!known) {
+                    split = segmenter.segment(text, tokens.coreStart(), tokens.coreEnd(), identifiers);
+                }
+                
+                // Only the first suggestion is used, or the first few for a misspelling with a
+                // model to rank them
+                List<Suggestion> suggestions = ngrams == null || known
+                        ? findSuggestions(word, 1, MAX_EDIT_DISTANCE, Suggestion.Verbosity.TOP)
+                        : findSuggestions(word, CONTEXT_CANDIDATES, MAX_EDIT_DISTANCE, Suggestion.Verbosity.ALL);
+                Suggestion best = suggestions.isEmpty() ? null
+                        : ngrams == null ? suggestions.get(0) : bestInContext(suggestions, ngrams, context);
+                
+                if (split != null && (best == null || split.cost < segmenter.correctionCost(best.frequency, best.distance))) {
+                    String originalWord = tokens.token();
+                    edits.add(new CorrectionResult.Edit(originalWord, tokens.replaceCore(split.text)));
+                    counts[Outcome.SPLIT.ordinal()]++;
+                    context.reset();
+                } else if (best != null && best.distance > 0) {
+                    // Replace with best suggestion, preserving original punctuation
+                    String originalWord = tokens.token();
+                    edits.add(new CorrectionResult.Edit(originalWord, tokens.replaceLetters(best.word)));
+                    counts[Outcome.SPELLING_CORRECTED.ordinal()]++;
+                    context.push(best.word);
+                } else {
+                    tokens.keep();
+                    counts[Outcome.UNCHANGED.ordinal()]++;
+                    context.push(word);
+                }
+            } catch (Exception e) {
+                tokens.keep();
+                counts[Outcome.ERROR.ordinal()]++;
+                metrics.error();
+                context.reset();
+            }
+        }
+        
+        return new CorrectionResult(text, tokens.result(), edits);
+    }
+    
+    /**
+     * The suggestion that fits best after the two words before it. Only suggestions at most one
+     * edit further than the closest one compete, scored by the n-gram model with each edit
+     * costing EDIT_COST; and only those seen right after the previous word can displace the first
+     * suggestion, so a model trained on little text never overrules the dictionary on
+     * frequency alone. Known words, and words after a break in the context, keep the dictionary
+     * ranking.
+     */
+    static Suggestion bestInContext(List<Suggestion> suggestions, NGramModel ngrams, NGramModel.Context context) {
+        Suggestion first = suggestions.get(0);
+        if (first.distance == 0 || suggestions.size() == 1) {
+            return first;
+        }
+        int v = ngrams.idOf(context.previous());
+        if (v == NGramModel.UNKNOWN) {
+            return first;
+        }
+        int u = ngrams.idOf(context.beforePrevious());
+        
+        Suggestion best = first;
+        double bestScore = ngrams.logScore(u, v, ngrams.idOf(first.word)) - first.distance * EDIT_COST;
+        for (int i = 1; i < Math.min(suggestions.size(), CONTEXT_CANDIDATES); i++) {
+            Suggestion suggestion = suggestions.get(i);
+            if (suggestion.distance > first.distance + 1) {
+                break;
+            }
+            double score = ngrams.logScoreAfter(u, v, ngrams.idOf(suggestion.word)) - suggestion.distance * EDIT_COST;
+            if (score > bestScore) {
+                best = suggestion;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+    
+    // Used when there is no rules file; the same rules as the chat_rules.txt that ships with the program
+    private static final String[] BASIC_RULES = {
+        "btwn = between", "w/ = with", "w = with", "b/w = between", "thru = through",
+        "yr = year", "mth = month", "lst = list", "prts = parts", "parst = parts",
+        "wat = what", "r = are", "yu = you", "nt = not", "hw = how", "shw = show",
+        "chek = check", "filde = failed", "partz = parts", "faild = failed",
+        "who's", "it's", "i'm", "don't", "can't", "won't"
+    };
+    private static final RuleSet BASIC_RULE_SET = RuleSet.parse(Arrays.asList(BASIC_RULES), "basic rules");
+    
+    // Used when there is no part master file
+    private static final IdentifierRecognizer BASIC_IDENTIFIERS = IdentifierRecognizer.of(Map.of(
+        "AE125", IdentifierRecognizer.Kind.PART, "AE126", IdentifierRecognizer.Kind.PART,
+        "AE127", IdentifierRecognizer.Kind.PART, "AE128", IdentifierRecognizer.Kind.PART,
+        "AE129", IdentifierRecognizer.Kind.PART));
+    
+    // "i;m" -> "I'm", "don;t" -> "don't"
+    private static String fixSemicolons(String word) {
+        word = word.replace(';', '\'');
+        // Capitalize "i" in contractions
+        if (word.length() > 1 && (word.charAt(0) == 'i' || word.charAt(0) == 'I') && word.charAt(1) == '\'') {
+            word = "I" + word.substring(1);
+        }
+        return word;
+    }
+    
+    public static void main(String[] args) throws IOException {
+        // compile-dictionary [dictionary file] [snapshot file]
+        if (args.length > 0 && args[0].equals("compile-dictionary")) {
+            String dictionaryPath = args.length > 1 ? args[1] : "frequency_dictionary_en_82_765.txt";
+            String snapshotPath = args.length > 2 ? args[2] : snapshotPath(dictionaryPath);
+            long start = System.nanoTime();
+            compileDictionary(dictionaryPath, snapshotPath);
+            System.out.printf("Compiled %s into %s in %.0f ms%n", dictionaryPath, snapshotPath, (System.nanoTime() - start) / 1e6);
+            return;
+        }
+        
+        // build-ngrams [corpus file] [model file] [min count]
+        if (args.length > 0 && args[0].equals("build-ngrams")) {
+            String corpusPath = args.length > 1 ? args[1] : "corpus.txt";
+            String modelPath = args.length > 2 ? args[2] : "ngrams.bin";
+            int minCount = args.length > 3 ? Integer.parseInt(args[3]) : 2;
+            long start = System.nanoTime();
+            buildNGrams(corpusPath, modelPath, minCount);
+            NGramModel model = NGramModel.open(modelPath);
+            System.out.printf("Counted %d n-grams of %d words from %s into %s (%d MB) in %.0f ms%n",
+                    model.ngramCount(), model.vocabularySize() - 2, corpusPath, modelPath,
+                    model.sizeInBytes() >> 20, (System.nanoTime() - start) / 1e6);
+            return;
+        }
+        
+        // batch [input file or -] [output file or -] [threads]
+        if (args.length > 0 && args[0].equals("batch")) {
+            // stdout carries the JSON lines; dictionary and progress messages go to stderr
+            PrintStream stdout = System.out;
+            System.setOut(System.err);
+            BatchCorrector.batch(args, stdout);
+            return;
+        }
+        
+        // serve [port]
+        if (args.length > 0 && args[0].equals("serve")) {
+            CorrectionServer.serve(args);
+            return;
+        }
+        
+        SpellChecker checker = new SpellChecker();
+        checker.metrics().register("repl");
+        Scanner scanner = new Scanner(System.in);
+        
+        System.out.println("=== Simple Java Spell Checker ===");
+        System.out.println("Commands:");
+        System.out.println("1. Type 'word <word>' to get suggestions for a single word");
+        System.out.println("2. Type 'text <sentence>' to correct an entire text");
+        System.out.println("3. Type 'code <id>' to look up a part number or contract ID");
+        System.out.println("4. Type 'stats' to show lookup latencies and correction counts");
+        System.out.println("5. Type 'quit' to exit");
+        System.out.println();
+        
+        // Check if dictionary file exists
+        File dictFile = new File("frequency_dictionary_en_82_765.txt");
+        if (!dictFile.exists()) {
+            System.out.println("Note: Dictionary file 'frequency_dictionary_en_82_765.txt' not found.");
+            System.out.println("A basic dictionary will be used. For better results, run './setup.sh' to download the full dictionary.");
+            System.out.println();
+        }
+        
+        // Example usage
+        System.out.println("Example commands:");
+        System.out.println("  word recieve");
+        System.out.println("  word teh");
+        System.out.println("  text I hav a misspeled sentance");
+        System.out.println("  code AE12S");
+        System.out.println();
+        
+        // The dictionary may still be loading; prompt at once anyway
+        if (checker.printReadiness()) {
+            System.out.println();
+        }
+        
+        while (true) {
+            System.out.print("Enter command: ");
+            String input = scanner.nextLine().trim();
+            
+            if (input.equalsIgnoreCase("quit")) {
+                break;
+            } else if (input.startsWith("word ")) {
+                String word = input.substring(5).trim();
+                checker.correctWord(word);
+            } else if (input.startsWith("text ")) {
+                String text = input.substring(5).trim();
+                checker.correctText(text);
+            } else if (input.startsWith("code ")) {
+                String code = input.substring(5).trim();
+                checker.checkCode(code);
+            } else if (input.equalsIgnoreCase("stats")) {
+                System.out.println(checker.metrics().dump());
+            } else {
+                System.out.println("Invalid command. Use 'word <word>', 'text <sentence>', 'code <id>', 'stats', or 'quit'");
+            }
+            System.out.println();
+        }
+        
+        scanner.close();
+        System.out.println("Goodbye!");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.chatbot.spellchecker;
+
+/**
+ * A dictionary word suggested for a typed word: its edit distance from what was typed and its
+ * frequency in the dictionary. Lists of suggestions come closest first, then most frequent.
+ */
+public final class Suggestion {
+    public final String word;
+    public final int distance;
+    public final int frequency;
+
+    Suggestion(String word, int distance, int frequency) {
+        this.word = word;
+        this.distance = distance;
+        this.frequency = frequency;
+    }
+
+    // Which suggestions SpellChecker.findSuggestions(word, k, maxDistance, verbosity) returns
+    public enum Verbosity {
+        // The closest word, the most frequent among equally close ones
+        TOP,
+        // Up to k words at the smallest distance found
+        CLOSEST,
+        // Up to k words within the max distance, closest first; a known word comes with its neighbours
+        ALL
+    }
+
+    @Override
+    public String toString() {
+        return word + " (distance: " + distance + ", frequency: " + frequency + ")";
+    }
+}
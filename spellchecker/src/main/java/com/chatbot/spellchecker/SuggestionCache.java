@@ -0,0 +1,281 @@
+package com.chatbot.spellchecker;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Bounded, thread-safe cache for suggestion lists with W-TinyLFU admission.
+ *
+ * Chat traffic repeats the same typos over and over, mixed with one-off garbage tokens. A plain
+ * LRU lets a burst of garbage push the frequent typos out. Here new entries first go to a small
+ * LRU window; an entry falling out of the window only enters the main area (a segmented LRU with
+ * probation and protected parts) if a frequency sketch says it was requested more often than the
+ * entry it would replace. The sketch is a 4-bit count-min sketch whose counters are halved
+ * periodically, so old popularity fades.
+ *
+ * The cache is split into segments by key hash, each guarded by its own lock. invalidate() drops
+ * all entries and bumps the epoch; a value computed under an earlier epoch is not stored, so a
+ * lookup that raced with a dictionary reload cannot bring back a stale result.
+ */
+final class SuggestionCache<V> {
+    private static final int SEGMENTS = 16;
+
+    private final Segment<V>[] segments;
+    private final AtomicLong epoch = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    SuggestionCache(int capacity) {
+        segments = (Segment<V>[]) new Segment<?>[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment<>(Math.max(1, capacity / SEGMENTS), this);
+        }
+    }
+
+    V get(String key) {
+        V value = segment(key).get(key);
+        if (value == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+
+    // Current epoch; read it before computing a value and pass it to put
+    long epoch() {
+        return epoch.get();
+    }
+
+    void put(String key, V value, long computedInEpoch) {
+        if (computedInEpoch == epoch.get()) {
+            segment(key).put(key, value, computedInEpoch);
+        }
+    }
+
+    // Drop every entry, e.g. because the dictionary was replaced
+    void invalidate() {
+        epoch.incrementAndGet();
+        for (Segment<V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    // Drop the entries whose keys match, e.g. the misspellings near a word that was added; like
+    // invalidate(), values computed before this call are not stored
+    void invalidateIf(Predicate<String> stale) {
+        epoch.incrementAndGet();
+        for (Segment<V> segment : segments) {
+            segment.removeIf(stale);
+        }
+    }
+
+    long hits() {
+        return hits.sum();
+    }
+
+    long misses() {
+        return misses.sum();
+    }
+
+    long evictions() {
+        return evictions.sum();
+    }
+
+    // Entries that fell out of the window and lost the admission contest
+    long rejections() {
+        return rejections.sum();
+    }
+
+    int size() {
+        int size = 0;
+        for (Segment<V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        long requests = hits() + misses();
+        return String.format("size=%d hits=%d misses=%d hitRate=%.1f%% evictions=%d rejections=%d",
+                size(), hits(), misses(), requests == 0 ? 0.0 : 100.0 * hits() / requests, evictions(), rejections());
+    }
+
+    private Segment<V> segment(String key) {
+        int h = key.hashCode();
+        return segments[(h ^ (h >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private static final class Segment<V> {
+        private final SuggestionCache<V> owner;
+        private final FrequencySketch sketch;
+        private final int windowCapacity;
+        private final int protectedCapacity;
+        private final int mainCapacity;
+
+        // Access-ordered: the eldest entry is the least recently used one
+        private final LinkedHashMap<String, V> window = new LinkedHashMap<>(16, 0.75f, true);
+        private final LinkedHashMap<String, V> probation = new LinkedHashMap<>(16, 0.75f, true);
+        private final LinkedHashMap<String, V> protectedArea = new LinkedHashMap<>(16, 0.75f, true);
+
+        Segment(int capacity, SuggestionCache<V> owner) {
+            this.owner = owner;
+            this.sketch = new FrequencySketch(capacity);
+            this.windowCapacity = Math.max(1, capacity / 100);
+            this.mainCapacity = Math.max(1, capacity - windowCapacity);
+            this.protectedCapacity = Math.max(1, mainCapacity * 4 / 5);
+        }
+
+        synchronized V get(String key) {
+            sketch.increment(key);
+
+            V value = window.get(key);
+            if (value != null) {
+                return value;
+            }
+            value = protectedArea.get(key);
+            if (value != null) {
+                return value;
+            }
+            value = probation.remove(key);
+            if (value != null) {
+                // Second hit: promote, demoting the protected LRU entry if that area is full
+                protectedArea.put(key, value);
+                if (protectedArea.size() > protectedCapacity) {
+                    Map.Entry<String, V> demoted = eldest(protectedArea);
+                    protectedArea.remove(demoted.getKey());
+                    probation.put(demoted.getKey(), demoted.getValue());
+                }
+            }
+            return value;
+        }
+
+        synchronized void put(String key, V value, long computedInEpoch) {
+            // Checked again under the lock so an invalidate() in between wins
+            if (computedInEpoch != owner.epoch.get()
+                    || window.containsKey(key) || probation.containsKey(key) || protectedArea.containsKey(key)) {
+                return;
+            }
+
+            window.put(key, value);
+            if (window.size() <= windowCapacity) {
+                return;
+            }
+
+            Map.Entry<String, V> candidate = eldest(window);
+            window.remove(candidate.getKey());
+            if (probation.size() + protectedArea.size() < mainCapacity) {
+                probation.put(candidate.getKey(), candidate.getValue());
+                return;
+            }
+
+            LinkedHashMap<String, V> victimArea = probation.isEmpty() ? protectedArea : probation;
+            Map.Entry<String, V> victim = eldest(victimArea);
+            if (sketch.frequency(candidate.getKey()) > sketch.frequency(victim.getKey())) {
+                victimArea.remove(victim.getKey());
+                probation.put(candidate.getKey(), candidate.getValue());
+                owner.evictions.increment();
+            } else {
+                owner.rejections.increment();
+            }
+        }
+
+        synchronized void clear() {
+            window.clear();
+            probation.clear();
+            protectedArea.clear();
+        }
+
+        synchronized void removeIf(Predicate<String> stale) {
+            window.keySet().removeIf(stale);
+            probation.keySet().removeIf(stale);
+            protectedArea.keySet().removeIf(stale);
+        }
+
+        synchronized int size() {
+            return window.size() + probation.size() + protectedArea.size();
+        }
+
+        private static <V> Map.Entry<String, V> eldest(LinkedHashMap<String, V> map) {
+            return map.entrySet().iterator().next();
+        }
+    }
+
+    // Count-min sketch of 4-bit counters, 16 per long, four rows hashed into one table
+    private static final class FrequencySketch {
+        private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+        };
+        private static final long RESET_MASK = 0x7777777777777777L;
+
+        private final long[] table;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int capacity) {
+            table = new long[Integer.highestOneBit(Math.max(8, capacity)) << 1];
+            sampleSize = 10 * Math.max(8, capacity);
+        }
+
+        void increment(String key) {
+            int hash = spread(key.hashCode());
+            boolean added = false;
+            for (int row = 0; row < 4; row++) {
+                added |= incrementAt(indexOf(hash, row), offsetOf(hash, row));
+            }
+            if (added && ++additions >= sampleSize) {
+                reset();
+            }
+        }
+
+        int frequency(String key) {
+            int hash = spread(key.hashCode());
+            int frequency = Integer.MAX_VALUE;
+            for (int row = 0; row < 4; row++) {
+                long counter = (table[indexOf(hash, row)] >>> offsetOf(hash, row)) & 0xfL;
+                frequency = Math.min(frequency, (int) counter);
+            }
+            return frequency;
+        }
+
+        private boolean incrementAt(int index, int offset) {
+            long mask = 0xfL << offset;
+            if ((table[index] & mask) != mask) {
+                table[index] += 1L << offset;
+                return true;
+            }
+            return false;
+        }
+
+        // Halve every counter so that popularity from long ago fades out
+        private void reset() {
+            for (int i = 0; i < table.length; i++) {
+                table[i] = (table[i] >>> 1) & RESET_MASK;
+            }
+            additions /= 2;
+        }
+
+        private int indexOf(int hash, int row) {
+            long h = (hash + SEEDS[row]) * SEEDS[row];
+            h += h >>> 32;
+            return (int) h & (table.length - 1);
+        }
+
+        // Each row uses its own 4-bit counter within the long
+        private static int offsetOf(int hash, int row) {
+            return (((hash >>> (row * 8)) & 3) + (row << 2)) << 2;
+        }
+
+        private static int spread(int h) {
+            h = ((h >>> 16) ^ h) * 0x45d9f3b;
+            h = ((h >>> 16) ^ h) * 0x45d9f3b;
+            return (h >>> 16) ^ h;
+        }
+    }
+}
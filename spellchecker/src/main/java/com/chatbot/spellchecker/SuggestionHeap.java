@@ -0,0 +1,94 @@
+package com.chatbot.spellchecker;
+
+import java.util.Arrays;
+
+/**
+ * The best k of a stream of suggestions, as a binary max-heap of longs with the worst one on top.
+ *
+ * A suggestion is ranked by distance, then by frequency (higher first), then by word id, the order
+ * of a full sorted list; all three are packed into one long so that ranks compare as longs and the
+ * heap never allocates per suggestion. Distances must be below 4 and ids non-negative.
+ */
+final class SuggestionHeap {
+    private final int capacity;
+    private long[] ranks;
+    private int size;
+
+    SuggestionHeap(int capacity) {
+        this.capacity = capacity;
+        this.ranks = new long[Math.min(capacity, 16)];
+    }
+
+    // Lower ranks are better. The sign bit is flipped so that distances 2 and 3 still sort last.
+    static long rank(int distance, int frequency, int id) {
+        return ((long) distance << 62 | (long) (Integer.MAX_VALUE - Math.max(0, frequency)) << 31 | id) ^ Long.MIN_VALUE;
+    }
+
+    static int distance(long rank) {
+        return (int) ((rank ^ Long.MIN_VALUE) >>> 62);
+    }
+
+    static int id(long rank) {
+        return (int) (rank & Integer.MAX_VALUE);
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean full() {
+        return size == capacity;
+    }
+
+    // Distance of the worst suggestion kept
+    int worstDistance() {
+        return distance(ranks[0]);
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    // Keeps the suggestion if there is room or it beats the worst one kept
+    boolean offer(long rank) {
+        if (size < capacity) {
+            if (size == ranks.length) {
+                ranks = Arrays.copyOf(ranks, (int) Math.min(capacity, size * 2L));
+            }
+            int i = size++;
+            while (i > 0 && ranks[(i - 1) >> 1] < rank) {
+                ranks[i] = ranks[(i - 1) >> 1];
+                i = (i - 1) >> 1;
+            }
+            ranks[i] = rank;
+            return true;
+        }
+        if (rank >= ranks[0]) {
+            return false;
+        }
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && ranks[child + 1] > ranks[child]) {
+                child++;
+            }
+            if (ranks[child] <= rank) {
+                break;
+            }
+            ranks[i] = ranks[child];
+            i = child;
+        }
+        ranks[i] = rank;
+        return true;
+    }
+
+    // The ranks kept, best first
+    long[] sorted() {
+        long[] sorted = Arrays.copyOf(ranks, size);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+}
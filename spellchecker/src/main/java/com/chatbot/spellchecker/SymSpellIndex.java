@@ -0,0 +1,278 @@
+package com.chatbot.spellchecker;
+
+import java.util.*;
+
+/**
+ * Symmetric-delete candidate index (the SymSpell approach).
+ *
+ * Every dictionary word is registered under all strings that can be produced by deleting
+ * up to maxEditDistance characters from its first prefixLength characters. A lookup generates
+ * the same deletes for the input word, so every dictionary word within maxEditDistance shares
+ * at least one delete with it. The candidates still have to be verified with a real edit
+ * distance, but that is a handful of words instead of the whole dictionary.
+ *
+ * Deletes are stored by their 64-bit hash in an open-addressing table with linked posting
+ * lists of word ids, so the index does not keep millions of delete strings alive. A hash
+ * collision only adds a candidate, which the verification step then rejects. The words
+ * themselves are kept in a WordPool, not as Strings.
+ */
+final class SymSpellIndex implements DictionaryIndex {
+    static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    static final long FNV_PRIME = 0x100000001b3L;
+    private static final int EMPTY = -1;
+
+    private final int maxEditDistance;
+    private final int prefixLength;
+
+    // Words are numbered in the iteration order of the source map
+    private final WordPool words;
+
+    // Delete hash -> head of a posting list
+    private long[] keys;
+    private int[] heads;
+    private int usedSlots;
+
+    // Posting lists: postingWord[i] is a word id, postingNext[i] the next posting or EMPTY
+    private int[] postingWord;
+    private int[] postingNext;
+    private int postingCount;
+
+    SymSpellIndex(Map<String, Integer> dictionary, int maxEditDistance, int prefixLength) {
+        this(new WordPool(dictionary), maxEditDistance, prefixLength);
+    }
+
+    // Indexes words that are already pooled, e.g. ones served for exact lookups meanwhile
+    SymSpellIndex(WordPool words, int maxEditDistance, int prefixLength) {
+        this.maxEditDistance = maxEditDistance;
+        this.prefixLength = prefixLength;
+        this.words = words;
+
+        int capacity = Integer.highestOneBit(Math.max(16, words.size() * 4)) * 2;
+        keys = new long[capacity];
+        heads = new int[capacity];
+        Arrays.fill(heads, EMPTY);
+        postingWord = new int[Math.max(16, words.size() * 8)];
+        postingNext = new int[postingWord.length];
+
+        Set<String> deletes = new HashSet<>();
+        for (int id = 0; id < words.size(); id++) {
+            deletes.clear();
+            collectDeletes(prefix(words.word(id), prefixLength), maxEditDistance, deletes);
+            for (String delete : deletes) {
+                addPosting(hash(delete), id);
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return words.size();
+    }
+
+    @Override
+    public int idOf(String word) {
+        return words.idOf(word);
+    }
+
+    @Override
+    public int idOfLowerCase(CharSequence text, int from, int to) {
+        return words.idOf(text, from, to, true);
+    }
+
+    @Override
+    public String word(int id) {
+        return words.word(id);
+    }
+
+    @Override
+    public int frequency(int id) {
+        return words.frequency(id);
+    }
+
+    @Override
+    public int distance(String input, int id, int maxDistance, boolean transpositions) {
+        return words.distance(input, id, maxDistance, transpositions);
+    }
+
+    // Heap held by the words, frequencies and id table, without the delete index
+    long wordBytes() {
+        return words.sizeInBytes();
+    }
+
+    int maxEditDistance() {
+        return maxEditDistance;
+    }
+
+    int prefixLength() {
+        return prefixLength;
+    }
+
+    /**
+     * Returns the ids of all dictionary words that share a delete with the input, in ascending
+     * order and without duplicates. Every word within maxEditDistance of the input is included.
+     */
+    @Override
+    public int[] candidates(String input) {
+        Set<String> deletes = new HashSet<>();
+        collectDeletes(prefix(input, prefixLength), maxEditDistance, deletes);
+        return candidates(deletes);
+    }
+
+    @Override
+    public int[] candidates(String input, int deletes) {
+        return candidates(exactDeletes(prefix(input, prefixLength), deletes));
+    }
+
+    @Override
+    public int[] candidates(Set<String> deletes) {
+        int[] found = new int[16];
+        int count = 0;
+        for (String delete : deletes) {
+            int slot = findSlot(hash(delete));
+            if (heads[slot] == EMPTY) {
+                continue;
+            }
+            for (int p = heads[slot]; p != EMPTY; p = postingNext[p]) {
+                if (count == found.length) {
+                    found = Arrays.copyOf(found, count * 2);
+                }
+                found[count++] = postingWord[p];
+            }
+        }
+
+        // Sort so that candidates come out in dictionary order, then drop duplicates
+        Arrays.sort(found, 0, count);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || found[unique - 1] != found[i]) {
+                found[unique++] = found[i];
+            }
+        }
+        return Arrays.copyOf(found, unique);
+    }
+
+    // Distinct delete hashes in the index
+    int deleteCount() {
+        return usedSlots;
+    }
+
+    // Passes every delete hash with the ids of the words registered under it (descending)
+    void forEachDelete(DeleteConsumer consumer) {
+        int[] ids = new int[16];
+        for (int slot = 0; slot < keys.length; slot++) {
+            int count = 0;
+            for (int p = heads[slot]; p != EMPTY; p = postingNext[p]) {
+                if (count == ids.length) {
+                    ids = Arrays.copyOf(ids, count * 2);
+                }
+                ids[count++] = postingWord[p];
+            }
+            if (count > 0) {
+                consumer.accept(keys[slot], ids, count);
+            }
+        }
+    }
+
+    interface DeleteConsumer {
+        void accept(long hash, int[] ids, int count);
+    }
+
+    static String prefix(String word, int prefixLength) {
+        return word.length() > prefixLength ? word.substring(0, prefixLength) : word;
+    }
+
+    // Adds the word itself and every string reachable by up to maxEditDistance deletes
+    static void collectDeletes(String word, int maxEditDistance, Set<String> deletes) {
+        deletes.add(word);
+        collectDeletes(word, 0, maxEditDistance, deletes);
+    }
+
+    // Every distinct string made by deleting exactly count characters from the word
+    static Set<String> exactDeletes(String word, int count) {
+        Set<String> deletes = new HashSet<>();
+        if (count <= word.length()) {
+            collectExactDeletes(word, 0, count, deletes);
+        }
+        return deletes;
+    }
+
+    private static void collectExactDeletes(String word, int from, int remaining, Set<String> deletes) {
+        if (remaining == 0) {
+            deletes.add(word);
+            return;
+        }
+        for (int i = from; i < word.length(); i++) {
+            collectExactDeletes(word.substring(0, i) + word.substring(i + 1), i, remaining - 1, deletes);
+        }
+    }
+
+    private static void collectDeletes(String word, int from, int remaining, Set<String> deletes) {
+        if (remaining == 0) {
+            return;
+        }
+        // Only delete at or after the previous position: each delete set is generated once
+        for (int i = from; i < word.length(); i++) {
+            String delete = word.substring(0, i) + word.substring(i + 1);
+            deletes.add(delete);
+            collectDeletes(delete, i, remaining - 1, deletes);
+        }
+    }
+
+    static long hash(String s) {
+        long h = FNV_OFFSET;
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= FNV_PRIME;
+        }
+        return h;
+    }
+
+    // Home slot of a delete hash in a power-of-two table
+    static int homeSlot(long key, int mask) {
+        return (int) (key ^ (key >>> 32)) & mask;
+    }
+
+    private int findSlot(long key) {
+        int mask = keys.length - 1;
+        int slot = homeSlot(key, mask);
+        while (heads[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void addPosting(long key, int wordId) {
+        int slot = findSlot(key);
+        if (heads[slot] == EMPTY) {
+            keys[slot] = key;
+            usedSlots++;
+        }
+
+        if (postingCount == postingWord.length) {
+            postingWord = Arrays.copyOf(postingWord, postingCount * 2);
+            postingNext = Arrays.copyOf(postingNext, postingCount * 2);
+        }
+        postingWord[postingCount] = wordId;
+        postingNext[postingCount] = heads[slot];
+        heads[slot] = postingCount++;
+
+        if (usedSlots * 2 > keys.length) {
+            rehash();
+        }
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        int[] oldHeads = heads;
+        keys = new long[oldKeys.length * 2];
+        heads = new int[oldHeads.length * 2];
+        Arrays.fill(heads, EMPTY);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldHeads[i] != EMPTY) {
+                int slot = findSlot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                heads[slot] = oldHeads[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package com.chatbot.spellchecker;
+
+/**
+ * Single pass over a text for SpellChecker.correct: splits it into whitespace-separated token
+ * spans and rebuilds the corrected text from them.
+ *
+ * Tokens are the same as text.split("\\s+") gives, but are only positions in the input, and
+ * each one is classified while it is scanned. Tokens that stay unchanged are copied from the
+ * input into the output without ever becoming a String. The output also tracks whether the next
+ * token starts a sentence, so no regex ever has to run over the text built so far.
+ *
+ * Not thread-safe; correct() creates one per call.
+ */
+final class Tokenizer {
+
+    enum Kind {
+        WORD,           // letters, possibly with punctuation: "parts", "details?", "w/"
+        NUMBER,         // digits only: "2024"
+        PART_CODE,      // letters and digits: "AE125", "x12"
+        PUNCTUATION,    // no letters: "-", "$5.00"
+        CONTRACTION     // contains an apostrophe, or a semicolon typed in its place: "don't", "i;m"
+    }
+
+    private final String text;
+    private int position;
+
+    // The current token: text[start, end)
+    private int start;
+    private int end;
+    private Kind kind;
+    private boolean semicolon;
+    private int letters;
+    private int firstLetter;
+
+    private final StringBuilder output;
+    private boolean outputBlank = true;
+    private boolean lineBreak;
+    private boolean sentenceEnd;
+
+    Tokenizer(String text) {
+        this.text = text;
+        this.output = new StringBuilder(text.length() + 16);
+    }
+
+    // Advances to the next token; false at the end of the text
+    boolean next() {
+        int length = text.length();
+        int i = position;
+        while (i < length && isSpace(text.charAt(i))) {
+            i++;
+        }
+        if (i == length) {
+            position = i;
+            return false;
+        }
+
+        start = i;
+        semicolon = false;
+        boolean apostrophe = false;
+        boolean lineTerminator = false;
+        boolean other = false;
+        int digits = 0;
+        letters = 0;
+        firstLetter = -1;
+        for (; i < length; i++) {
+            char c = text.charAt(i);
+            if (isSpace(c)) {
+                break;
+            }
+            if (isLetter(c)) {
+                if (letters++ == 0) {
+                    firstLetter = i;
+                }
+            } else if (c >= '0' && c <= '9') {
+                digits++;
+            } else {
+                other = true;
+                if (c == ';') {
+                    semicolon = true;
+                } else if (c == '\'') {
+                    apostrophe = true;
+                } else {
+                    lineTerminator |= isLineTerminator(c);
+                }
+            }
+        }
+        end = i;
+        position = i;
+        // A semicolon only counts where ".*;.*" matches, and '.' does not match line terminators
+        semicolon &= !lineTerminator;
+
+        if (semicolon || apostrophe) {
+            kind = Kind.CONTRACTION;
+        } else if (letters == 0) {
+            kind = digits > 0 && !other ? Kind.NUMBER : Kind.PUNCTUATION;
+        } else {
+            kind = digits > 0 ? Kind.PART_CODE : Kind.WORD;
+        }
+        return true;
+    }
+
+    String text() {
+        return text;
+    }
+
+    int start() {
+        return start;
+    }
+
+    // Makes the current token run up to end, the end of a later token, for phrase rules.
+    // The classification still describes the first token only.
+    void extendTo(int end) {
+        this.end = end;
+        this.position = end;
+    }
+
+    Kind kind() {
+        return kind;
+    }
+
+    boolean hasSemicolon() {
+        return semicolon;
+    }
+
+    // Number of ASCII letters, the only characters that are spell checked
+    int letters() {
+        return letters;
+    }
+
+    boolean startsWithUpperCase() {
+        char c = text.charAt(firstLetter);
+        return c >= 'A' && c <= 'Z';
+    }
+
+    // The token as a String; allocates, so only used when it is reported as an edit
+    String token() {
+        return text.substring(start, end);
+    }
+
+    // Start of the core of the token, without the punctuation around it: its first ASCII letter
+    // or digit ("(AE125)," -> "AE125")
+    int coreStart() {
+        int i = start;
+        while (!isLetterOrDigit(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    // End of the core of the token: just after its last ASCII letter or digit
+    int coreEnd() {
+        int i = end;
+        while (!isLetterOrDigit(text.charAt(i - 1))) {
+            i--;
+        }
+        return i;
+    }
+
+    // The ASCII letters of the token, lowercased: the word to look up. After extendTo, the
+    // letters of every word in it.
+    String lowerLetters() {
+        return lowerLetters(firstLetter);
+    }
+
+    // The ASCII letters of the token's last whitespace-separated word, lowercased, or null if
+    // it has none: the word a phrase rule ends with
+    String lastLowerLetters() {
+        int from = end;
+        while (from > start && !isSpace(text.charAt(from - 1))) {
+            from--;
+        }
+        String word = lowerLetters(from);
+        return word.isEmpty() ? null : word;
+    }
+
+    private String lowerLetters(int from) {
+        int count = 0;
+        for (int i = from; i < end; i++) {
+            if (isLetter(text.charAt(i))) {
+                count++;
+            }
+        }
+        char[] word = new char[count];
+        int n = 0;
+        for (int i = from; i < end; i++) {
+            char c = text.charAt(i);
+            if (isLetter(c)) {
+                word[n++] = toLower(c);
+            }
+        }
+        return new String(word);
+    }
+
+    // True if the output so far is blank or ends a sentence with '.', '!' or '?'
+    boolean atSentenceStart() {
+        return outputBlank || (sentenceEnd && !lineBreak);
+    }
+
+    // Emits the token as typed; whitespace inside an extended token becomes a single space
+    void keep() {
+        separate();
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (!isSpace(c)) {
+                append(c);
+            } else if (!isSpace(text.charAt(i - 1))) {
+                output.append(' ');
+            }
+        }
+        endToken();
+    }
+
+    // Emits the replacement and returns it
+    String replace(String replacement) {
+        separate();
+        for (int i = 0; i < replacement.length(); i++) {
+            append(replacement.charAt(i));
+        }
+        endToken();
+        return replacement;
+    }
+
+    // Emits the word followed by the token's non-letters ("numbr," -> "number,") and returns it
+    String replaceLetters(String word) {
+        separate();
+        int from = output.length();
+        for (int i = 0; i < word.length(); i++) {
+            append(word.charAt(i));
+        }
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (!isLetter(c)) {
+                append(c);
+            }
+        }
+        endToken();
+        return output.substring(from);
+    }
+
+    // Emits the token with its core replaced, keeping the punctuation around it, and returns it
+    String replaceCore(String core) {
+        separate();
+        int from = output.length();
+        int coreStart = coreStart();
+        int coreEnd = coreEnd();
+        for (int i = start; i < coreStart; i++) {
+            append(text.charAt(i));
+        }
+        for (int i = 0; i < core.length(); i++) {
+            append(core.charAt(i));
+        }
+        for (int i = coreEnd; i < end; i++) {
+            append(text.charAt(i));
+        }
+        endToken();
+        return output.substring(from);
+    }
+
+    // The corrected text, trimmed like String.trim()
+    String result() {
+        int from = 0;
+        int to = output.length();
+        while (from < to && output.charAt(from) <= ' ') {
+            from++;
+        }
+        while (to > from && output.charAt(to - 1) <= ' ') {
+            to--;
+        }
+        return output.substring(from, to);
+    }
+
+    private void separate() {
+        if (output.length() > 0) {
+            output.append(' ');
+        }
+    }
+
+    private void endToken() {
+        if (output.length() > 0) {
+            sentenceEnd = isSentenceEnd(output.charAt(output.length() - 1));
+        }
+    }
+
+    private void append(char c) {
+        output.append(c);
+        track(c);
+    }
+
+    // Sentence starts follow the rule ".*[.!?]\\s*$" on the output so far, where '.' does not
+    // match line terminators: after a line terminator no later token starts a sentence
+    private void track(char c) {
+        if (c > ' ') {
+            outputBlank = false;
+        }
+        if (isLineTerminator(c)) {
+            lineBreak = true;
+        }
+    }
+
+    // Line terminators other than '\n' and '\r', which are whitespace here
+    private static boolean isLineTerminator(char c) {
+        return c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    // The whitespace of the old split("\\s+")
+    static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isLetterOrDigit(char c) {
+        return isLetter(c) || (c >= '0' && c <= '9');
+    }
+
+    private static char toLower(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    private static boolean isSentenceEnd(char c) {
+        return c == '.' || c == '!' || c == '?';
+    }
+}
@@ -0,0 +1,253 @@
+package com.chatbot.spellchecker;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The words and frequencies of an in-memory dictionary in a handful of primitive arrays, in
+ * place of a String per word and a HashMap<String, Integer> from words to ids.
+ *
+ * All words are UTF-8 in one byte pool, word i at pool[offsets[i], offsets[i + 1]), so the
+ * offsets double as the lengths. Frequencies are an int[] by id. Ids are found through an
+ * open-addressing table with linear probing, hashed like SymSpellIndex.hash over the UTF-16
+ * chars, at a load of at most 2/3. Each slot keeps the upper half of the hash next to the id,
+ * so a probe only reads the pool when the hashes agree, as HashMap does with its cached
+ * String hashes. A part code costs about 33 bytes in all, against about 70 as a String, its
+ * array, a boxed Integer and a HashMap node; and the whole dictionary is 4 objects for the GC
+ * to trace instead of millions. Looking up a String takes about twice as long as in the
+ * HashMap, which finds its nodes next to their Strings; a range of a text takes less, as the
+ * map needs a String built first.
+ *
+ * Lookups take a CharSequence or a range of one and compare it with the pooled bytes directly,
+ * so callers never build a String just to look a word up. Immutable once built; safe to read
+ * from any thread.
+ *
+ * On its own it is also a DictionaryIndex without a delete index: known words are found, but
+ * misspellings get no candidates. SpellChecker serves that while the delete index is built.
+ */
+final class WordPool implements DictionaryIndex {
+    private static final int[] NO_CANDIDATES = new int[0];
+
+    private static final ThreadLocal<View> VIEWS = ThreadLocal.withInitial(View::new);
+
+    private final byte[] pool;
+    private final int[] offsets;
+    private final int[] frequencies;
+    // Upper 32 bits of the hash, then id + 1; 0 for an empty slot
+    private final long[] slots;
+    private final boolean ascii;
+
+    // Words are numbered in the iteration order of the map
+    WordPool(Map<String, Integer> dictionary) {
+        int size = dictionary.size();
+        byte[][] encoded = new byte[size][];
+        offsets = new int[size + 1];
+        frequencies = new int[size];
+        slots = new long[Integer.highestOneBit(Math.max(2, size * 3 / 2)) << 1];
+
+        int id = 0;
+        int length = 0;
+        for (Map.Entry<String, Integer> entry : dictionary.entrySet()) {
+            encoded[id] = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            frequencies[id] = entry.getValue();
+            length += encoded[id].length;
+            offsets[id + 1] = length;
+
+            int mask = slots.length - 1;
+            long hash = SymSpellIndex.hash(entry.getKey());
+            int slot = homeSlot(hash, mask);
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = (hash & 0xffffffff00000000L) | ++id;
+        }
+
+        pool = new byte[length];
+        boolean ascii = true;
+        for (int i = 0; i < size; i++) {
+            System.arraycopy(encoded[i], 0, pool, offsets[i], encoded[i].length);
+        }
+        for (byte b : pool) {
+            ascii &= b >= 0;
+        }
+        this.ascii = ascii;
+    }
+
+    @Override
+    public int size() {
+        return frequencies.length;
+    }
+
+    @Override
+    public int frequency(int id) {
+        return frequencies[id];
+    }
+
+    // Allocates; for words that are returned to callers
+    @Override
+    public String word(int id) {
+        return new String(pool, offsets[id], offsets[id + 1] - offsets[id], StandardCharsets.UTF_8);
+    }
+
+    // Bytes held by the arrays
+    long sizeInBytes() {
+        return pool.length + 4L * (offsets.length + frequencies.length) + 8L * slots.length;
+    }
+
+    // Id of the word, or -1
+    int idOf(CharSequence word) {
+        return idOf(word, 0, word.length(), false);
+    }
+
+    @Override
+    public int idOf(String word) {
+        return idOf(word, 0, word.length(), false);
+    }
+
+    @Override
+    public int idOfLowerCase(CharSequence text, int from, int to) {
+        return idOf(text, from, to, true);
+    }
+
+    @Override
+    public int[] candidates(String input) {
+        return NO_CANDIDATES;
+    }
+
+    @Override
+    public int[] candidates(String input, int deletes) {
+        return NO_CANDIDATES;
+    }
+
+    @Override
+    public int[] candidates(Set<String> inputDeletes) {
+        return NO_CANDIDATES;
+    }
+
+    /**
+     * Id of text[from, to), or -1. With lowerCase, A-Z in the text match a-z in the
+     * dictionary, for looking up pieces of a token as typed.
+     */
+    int idOf(CharSequence text, int from, int to, boolean lowerCase) {
+        long hash = SymSpellIndex.FNV_OFFSET;
+        for (int i = from; i < to; i++) {
+            hash ^= lowerCase ? toLower(text.charAt(i)) : text.charAt(i);
+            hash *= SymSpellIndex.FNV_PRIME;
+        }
+        int mask = slots.length - 1;
+        int slot = homeSlot(hash, mask);
+        long upper = hash & 0xffffffff00000000L;
+        long entry;
+        while ((entry = slots[slot]) != 0) {
+            int id = (int) entry - 1;
+            if ((entry & 0xffffffff00000000L) == upper && matches(id, text, from, to, lowerCase)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    // Compares the pooled UTF-8 bytes with the chars, decoding only bytes outside ASCII
+    private boolean matches(int id, CharSequence text, int from, int to, boolean lowerCase) {
+        int position = offsets[id];
+        int end = offsets[id + 1];
+        int i = from;
+        while (position < end && i < to) {
+            int b = pool[position] & 0xff;
+            if (b < 0x80) {
+                char c = text.charAt(i++);
+                if ((lowerCase ? toLower(c) : c) != b) {
+                    return false;
+                }
+                position++;
+                continue;
+            }
+            int extra = b >= 0xf0 ? 3 : b >= 0xe0 ? 2 : 1;
+            int codePoint = b & (0x3f >> extra);
+            for (int k = 1; k <= extra; k++) {
+                codePoint = codePoint << 6 | (pool[position + k] & 0x3f);
+            }
+            position += extra + 1;
+            if (codePoint < 0x10000) {
+                if (text.charAt(i++) != codePoint) {
+                    return false;
+                }
+            } else if (i + 1 >= to || text.charAt(i++) != Character.highSurrogate(codePoint)
+                    || text.charAt(i++) != Character.lowSurrogate(codePoint)) {
+                return false;
+            }
+        }
+        return position == end && i == to;
+    }
+
+    /**
+     * Edit distance between the input and a pooled word, run on a per-thread view of its bytes
+     * instead of a String. Words outside ASCII are decoded.
+     */
+    @Override
+    public int distance(String input, int id, int maxDistance, boolean transpositions) {
+        if (!ascii && !isAscii(id)) {
+            return EditDistance.distance(input, word(id), maxDistance, transpositions);
+        }
+        View view = VIEWS.get();
+        view.point(pool, offsets[id], offsets[id + 1]);
+        return EditDistance.distance(input, view, maxDistance, transpositions);
+    }
+
+    private boolean isAscii(int id) {
+        for (int i = offsets[id]; i < offsets[id + 1]; i++) {
+            if (pool[i] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int homeSlot(long hash, int mask) {
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static char toLower(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    // Reusable CharSequence over an ASCII word in the pool
+    private static final class View implements CharSequence {
+        private byte[] pool;
+        private int start;
+        private int length;
+
+        void point(byte[] pool, int start, int end) {
+            this.pool = pool;
+            this.start = start;
+            this.length = end - start;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) pool[start + index];
+        }
+
+        // A new view, so that it keeps its range when this one is pointed elsewhere
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            Objects.checkFromToIndex(from, to, length);
+            View view = new View();
+            view.point(pool, start + from, start + to);
+            return view;
+        }
+
+        @Override
+        public String toString() {
+            return new String(pool, start, length, StandardCharsets.US_ASCII);
+        }
+    }
+}